@@ -0,0 +1,43 @@
+package security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import security.jwt.JwtBenchmarkFixture;
+import security.jwt.JwtProvider;
+import security.jwt.TokenRevocationStore;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One pass through the filter per call. A fresh mock request, response and chain
+ * are created each time, because OncePerRequestFilter marks the request as
+ * filtered; their cost is part of the score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtAuthorizationFilterBenchmark {
+
+    private JwtAuthorizationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() throws Exception {
+        JwtProvider jwtProvider = JwtBenchmarkFixture.jwtProvider(10000, new TokenRevocationStore(60000, 100000));
+        filter = new JwtAuthorizationFilter(jwtProvider);
+        authorization = "Bearer " + jwtProvider.generateToken(new UserPrincipal(42, "benchmark-user", null));
+    }
+
+    @Benchmark
+    public Object doFilterInternal() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.addHeader("Authorization", authorization);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,67 @@
+package security.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.config.core.GrantedAuthorityDefaults;
+import org.springframework.test.util.ReflectionTestUtils;
+import model.entity.Role;
+import security.AuthMetrics;
+import security.RoleAuthorities;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Builds a {@link JwtProvider} outside Spring for the benchmarks, with a fresh
+ * RSA-2048 key and the same collaborators the application wires in.
+ */
+public final class JwtBenchmarkFixture {
+
+    private JwtBenchmarkFixture() {
+    }
+
+    public static JwtProvider jwtProvider(int verifiedCacheSize, TokenRevocationStore revocationStore) throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        Base64.Encoder encoder = Base64.getEncoder();
+        SigningKeyRing signingKeyRing = new SigningKeyRing(new JwtKeyProperties(),
+                encoder.encodeToString(keyPair.getPrivate().getEncoded()),
+                encoder.encodeToString(keyPair.getPublic().getEncoded()));
+
+        // the revocation and user details services are only used by blacklistToken and refreshToken,
+        // which are not benchmarked
+        JwtProvider jwtProvider = new JwtProvider(signingKeyRing, new VerifiedTokenCache(verifiedCacheSize),
+                new IntrospectionCache(0, 5000), revocationStore, null, new AuthMetrics(new SimpleMeterRegistry()),
+                roleAuthorities(), null);
+        ReflectionTestUtils.setField(jwtProvider, "JWT_EXPIRATION_IN_MS", 900000L);
+        ReflectionTestUtils.setField(jwtProvider, "JWT_REFRESH_EXPIRATION_IN_MS", 86400000L);
+        return jwtProvider;
+    }
+
+    // the two roles of the seed data, so tokens carry the compact role mask
+    private static RoleAuthorities roleAuthorities() {
+        RoleAuthorities roleAuthorities = new RoleAuthorities(null,
+                new StaticListableBeanFactory().getBeanProvider(GrantedAuthorityDefaults.class));
+        List<Role> roles = new ArrayList<>();
+        for (String name : new String[]{"USER", "ADMIN"}) {
+            Role role = new Role();
+            role.setId(roles.size() + 1);
+            role.setName(name);
+            roles.add(role);
+        }
+        roleAuthorities.apply(roles);
+        return roleAuthorities;
+    }
+
+    public static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return request;
+    }
+}
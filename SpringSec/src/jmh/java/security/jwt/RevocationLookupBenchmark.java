@@ -0,0 +1,39 @@
+package security.jwt;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RevocationLookupBenchmark {
+
+    @Param({"1000", "100000"})
+    public int revokedTokens;
+
+    private TokenRevocationStore revocationStore;
+    private String revokedDigest;
+    private String activeDigest;
+
+    @Setup
+    public void setUp() {
+        revocationStore = new TokenRevocationStore(60000, revokedTokens);
+        long expiresAt = System.currentTimeMillis() + 3600000;
+        for (int i = 0; i < revokedTokens; i++) {
+            revocationStore.revoke(TokenDigest.of("revoked-" + i), expiresAt);
+        }
+        revokedDigest = TokenDigest.of("revoked-0");
+        activeDigest = TokenDigest.of("active");
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        return revocationStore.isRevoked(activeDigest);
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        return revocationStore.isRevoked(revokedDigest);
+    }
+}
@@ -0,0 +1,31 @@
+package security.jwt;
+
+import org.openjdk.jmh.annotations.*;
+import security.UserPrincipal;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TokenIssuanceBenchmark {
+
+    private JwtProvider jwtProvider;
+    private UserPrincipal userPrincipal;
+
+    @Setup
+    public void setUp() throws Exception {
+        jwtProvider = JwtBenchmarkFixture.jwtProvider(10000, new TokenRevocationStore(60000, 100000));
+        userPrincipal = new UserPrincipal(42, "benchmark-user", null);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtProvider.generateToken(userPrincipal);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtProvider.generateRefreshToken(userPrincipal);
+    }
+}
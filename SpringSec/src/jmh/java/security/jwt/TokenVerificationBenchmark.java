@@ -0,0 +1,41 @@
+package security.jwt;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.Authentication;
+import security.UserPrincipal;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verification of one token presented over and over, the common case for a
+ * client reusing its access token. With {@code verifiedCache=false} every call
+ * pays for the signature check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TokenVerificationBenchmark {
+
+    @Param({"true", "false"})
+    public boolean verifiedCache;
+
+    private JwtProvider jwtProvider;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() throws Exception {
+        jwtProvider = JwtBenchmarkFixture.jwtProvider(verifiedCache ? 10000 : 0, new TokenRevocationStore(60000, 100000));
+        request = JwtBenchmarkFixture.request(jwtProvider.generateToken(new UserPrincipal(42, "benchmark-user", null)));
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return jwtProvider.getAuthentication(request);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtProvider.isTokenValid(request);
+    }
+}
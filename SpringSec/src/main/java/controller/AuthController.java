@@ -2,42 +2,68 @@ package controller;
 
 import dto.request.SignInRequest;
 import dto.response.JwtAuthenticationResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
+import security.LoginThrottledException;
+import security.PasswordHashingOverloadedException;
+import security.audit.AuditEventType;
+import security.audit.AuditLog;
+import security.jwt.TokenDigest;
 import service.AuthenticationService;
-import security.UserPrincipal;
 import security.jwt.JwtProvider;
+import security.jwt.TokenPair;
 
-import javax.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/auth")
 public class AuthController {
 
     private final AuthenticationService authenticationService;
     private final JwtProvider jwtProvider;
+    private final AuditLog auditLog;
 
-    public AuthController(AuthenticationService authenticationService, JwtProvider jwtProvider) {
+    public AuthController(AuthenticationService authenticationService, JwtProvider jwtProvider, AuditLog auditLog) {
         this.authenticationService = authenticationService;
         this.jwtProvider = jwtProvider;
+        this.auditLog = auditLog;
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@RequestBody SignInRequest signInRequest) {
-        // İstifadəçinin məlumatlarını yoxlayıb JWT tokenlərini yaradın
-        String accessToken = authenticationService.singInAndReturnJWT(signInRequest);
-        String refreshToken = jwtProvider.generateRefreshToken((UserPrincipal) authenticationService.getUserPrincipal(signInRequest.getUsername()));
+    public ResponseEntity<?> authenticateUser(@RequestBody SignInRequest signInRequest, HttpServletRequest request) {
+        String clientIp = request.getRemoteAddr();
+        // İstifadəçini bir dəfə yoxlayıb hər iki JWT tokenini eyni principal-dan yaradın
+        TokenPair tokens;
+        try {
+            tokens = authenticationService.signInAndReturnTokens(signInRequest, clientIp);
+        } catch (LoginThrottledException e) {
+            auditLog.record(AuditEventType.LOGIN_THROTTLED, signInRequest.getUsername(), clientIp, null);
+            throw e;
+        } catch (AuthenticationException e) {
+            // DaoAuthenticationProvider wraps what the encoder throws during the user lookup
+            if (e.getCause() instanceof PasswordHashingOverloadedException overloaded) {
+                throw overloaded;
+            }
+            auditLog.record(AuditEventType.LOGIN_FAILURE, signInRequest.getUsername(), clientIp, e.getClass().getSimpleName());
+            throw e;
+        }
+        // Audit qeydində refresh token-in özü yox, digest-i saxlanılır
+        auditLog.record(AuditEventType.LOGIN_SUCCESS, signInRequest.getUsername(), clientIp,
+                TokenDigest.of(tokens.getRefreshToken()));
 
         // Refresh token-i cookie-də saxlayın
         HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.SET_COOKIE, createCookie("refreshToken", refreshToken));
+        headers.add(HttpHeaders.SET_COOKIE, createCookie("refreshToken", tokens.getRefreshToken()));
 
         // JWT access token və refresh token-i qaytarın
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(new JwtAuthenticationResponse(accessToken));
+                .body(new JwtAuthenticationResponse(tokens.getAccessToken()));
     }
 
     @PostMapping("/refresh")
@@ -45,10 +71,24 @@ public class AuthController {
         // Refresh token-i əldə edirik
         String refreshToken = extractRefreshToken(request);
 
-        // Token-i yeniləyirik
-        String newAccessToken = jwtProvider.refreshToken(refreshToken);
+        // Token-i yeniləyirik (opaque rejimdə refresh token da rotasiya olunur)
+        TokenPair tokens;
+        try {
+            tokens = authenticationService.refresh(refreshToken);
+        } catch (RuntimeException e) {
+            auditLog.record(AuditEventType.REFRESH_FAILURE, null, request.getRemoteAddr(), TokenDigest.of(refreshToken));
+            throw e;
+        }
+        auditLog.record(AuditEventType.REFRESH_SUCCESS, null, request.getRemoteAddr(), TokenDigest.of(refreshToken));
 
-        return ResponseEntity.ok(new JwtAuthenticationResponse(newAccessToken));
+        HttpHeaders headers = new HttpHeaders();
+        if (!tokens.getRefreshToken().equals(refreshToken)) {
+            headers.add(HttpHeaders.SET_COOKIE, createCookie("refreshToken", tokens.getRefreshToken()));
+        }
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(new JwtAuthenticationResponse(tokens.getAccessToken()));
     }
 
     @PostMapping("/logout")
@@ -57,11 +97,28 @@ public class AuthController {
         String refreshToken = extractRefreshToken(request);
 
         // Token-i qara siyahıya alırıq
-        jwtProvider.blacklistToken(refreshToken);
+        authenticationService.logout(refreshToken);
+        auditLog.record(AuditEventType.LOGOUT, null, request.getRemoteAddr(), TokenDigest.of(refreshToken));
 
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
 
+    // Çox sayda login cəhdi: 429 və nə vaxt yenidən cəhd etmək olar
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<?> loginThrottled(LoginThrottledException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .build();
+    }
+
+    // BCrypt hovuzu doludur: şifrə yoxlanılmayıb, 503 və nə vaxt yenidən cəhd etmək olar
+    @ExceptionHandler(PasswordHashingOverloadedException.class)
+    public ResponseEntity<?> passwordHashingOverloaded(PasswordHashingOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .build();
+    }
+
     private String extractRefreshToken(HttpServletRequest request) {
         return request.getHeader(HttpHeaders.COOKIE).split("=")[1];
     }
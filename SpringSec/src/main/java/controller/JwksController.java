@@ -0,0 +1,33 @@
+package controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import security.jwt.SigningKeyRing;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+public class JwksController {
+
+    private final SigningKeyRing signingKeyRing;
+    private final long maxAgeSeconds;
+
+    public JwksController(SigningKeyRing signingKeyRing,
+                          @Value("${authentication.jwt.jwks-max-age-seconds:300}") long maxAgeSeconds) {
+        this.signingKeyRing = signingKeyRing;
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> jwks() {
+        // JWKS sənədi hər rotasiyada əvvəlcədən hazırlanır, burada yalnız qaytarılır
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic())
+                .eTag(signingKeyRing.getJwksEtag())
+                .body(signingKeyRing.getJwks());
+    }
+}
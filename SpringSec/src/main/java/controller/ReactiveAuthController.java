@@ -0,0 +1,141 @@
+package controller;
+
+import dto.request.SignInRequest;
+import dto.response.JwtAuthenticationResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import security.LoginThrottle;
+import security.LoginThrottledException;
+import security.PasswordHashingOverloadedException;
+import security.UserPrincipal;
+import security.jwt.JwtProvider;
+import security.jwt.TokenPair;
+import service.OpaqueRefreshTokenService;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/auth")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthController {
+
+    private static final String REFRESH_COOKIE = "refreshToken";
+
+    private final ReactiveAuthenticationManager authenticationManager;
+    private final JwtProvider jwtProvider;
+    private final OpaqueRefreshTokenService opaqueRefreshTokenService;
+    private final LoginThrottle loginThrottle;
+    private final Scheduler authScheduler;
+    private final boolean opaqueRefreshTokens;
+
+    public ReactiveAuthController(ReactiveAuthenticationManager authenticationManager, JwtProvider jwtProvider,
+                                  OpaqueRefreshTokenService opaqueRefreshTokenService, LoginThrottle loginThrottle,
+                                  Scheduler authScheduler,
+                                  @Value("${authentication.refresh-token.mode:jwt}") String refreshTokenMode) {
+        this.authenticationManager = authenticationManager;
+        this.jwtProvider = jwtProvider;
+        this.opaqueRefreshTokenService = opaqueRefreshTokenService;
+        this.loginThrottle = loginThrottle;
+        this.authScheduler = authScheduler;
+        this.opaqueRefreshTokens = "opaque".equalsIgnoreCase(refreshTokenMode);
+    }
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<JwtAuthenticationResponse>> authenticateUser(@RequestBody SignInRequest signInRequest,
+                                                                            ServerHttpRequest request) {
+        String clientIp = request.getRemoteAddress() == null ? null : request.getRemoteAddress().getAddress().getHostAddress();
+        // BCrypt yoxlaması və imzalama event loop-da deyil, authScheduler-də icra olunur
+        return Mono.fromRunnable(() -> loginThrottle.acquire(signInRequest.getUsername(), clientIp))
+                .then(Mono.defer(() -> authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(signInRequest.getUsername(), signInRequest.getPassword()))))
+                .map(authentication -> (UserPrincipal) authentication.getPrincipal())
+                .publishOn(authScheduler)
+                .map(this::issueTokens)
+                .map(tokens -> ResponseEntity.ok()
+                        .header(HttpHeaders.SET_COOKIE, refreshCookie(tokens.getRefreshToken()))
+                        .body(new JwtAuthenticationResponse(tokens.getAccessToken())))
+                .onErrorResume(LoginThrottledException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                        .build()))
+                .onErrorResume(PasswordHashingOverloadedException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                                .build()))
+                .onErrorResume(AuthenticationException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build()))
+                .onErrorResume(RejectedExecutionException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build()));
+    }
+
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<JwtAuthenticationResponse>> refreshToken(ServerHttpRequest request) {
+        HttpCookie cookie = request.getCookies().getFirst(REFRESH_COOKIE);
+        if (cookie == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        String refreshToken = cookie.getValue();
+        // opaque rejimdə refresh token da rotasiya olunur
+        return Mono.fromCallable(() -> opaqueRefreshTokens
+                        ? opaqueRefreshTokenService.rotate(refreshToken)
+                        : new TokenPair(jwtProvider.refreshToken(refreshToken), refreshToken))
+                .subscribeOn(authScheduler)
+                .map(tokens -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (!tokens.getRefreshToken().equals(refreshToken)) {
+                        response.header(HttpHeaders.SET_COOKIE, refreshCookie(tokens.getRefreshToken()));
+                    }
+                    return response.body(new JwtAuthenticationResponse(tokens.getAccessToken()));
+                });
+    }
+
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<Void>> logoutUser(ServerHttpRequest request) {
+        HttpCookie cookie = request.getCookies().getFirst(REFRESH_COOKIE);
+        if (cookie == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NO_CONTENT).build());
+        }
+        // revokasiya bazaya yazılır, ona görə bloklayan işlər üçün olan scheduler-də
+        return Mono.fromRunnable(() -> {
+                    if (opaqueRefreshTokens) {
+                        opaqueRefreshTokenService.revoke(cookie.getValue());
+                    } else {
+                        jwtProvider.blacklistToken(cookie.getValue());
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .thenReturn(ResponseEntity.status(HttpStatus.NO_CONTENT).build());
+    }
+
+    private TokenPair issueTokens(UserPrincipal userPrincipal) {
+        if (opaqueRefreshTokens) {
+            return new TokenPair(jwtProvider.generateToken(userPrincipal), opaqueRefreshTokenService.issue(userPrincipal));
+        }
+        return jwtProvider.generateTokenPair(userPrincipal);
+    }
+
+    private String refreshCookie(String value) {
+        return ResponseCookie.from(REFRESH_COOKIE, value)
+                .httpOnly(true)
+                .path("/")
+                .maxAge(Duration.ofMillis(jwtProvider.getJWT_REFRESH_EXPIRATION_IN_MS()))
+                .build()
+                .toString();
+    }
+}
@@ -0,0 +1,23 @@
+package controller;
+
+import dto.response.UserResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import security.UserPrincipal;
+
+@RestController
+@RequestMapping("/api/v1/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserController {
+
+    @GetMapping("/me")
+    public Mono<ResponseEntity<UserResponse>> currentUser(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        // Token-dən gələn istifadəçi məlumatlarını qaytarırıq, bazaya müraciət olunmur
+        return Mono.just(ResponseEntity.ok(new UserResponse(userPrincipal.getId(), userPrincipal.getUsername())));
+    }
+}
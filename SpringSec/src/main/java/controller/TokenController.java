@@ -0,0 +1,88 @@
+package controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dto.request.BulkTokenRequest;
+import dto.request.IntrospectionRequest;
+import dto.response.IntrospectionResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import service.BulkTokenService;
+import service.TokenIntrospectionService;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/v1/tokens")
+public class TokenController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final BulkTokenService bulkTokenService;
+    private final TokenIntrospectionService introspectionService;
+    private final ObjectMapper objectMapper;
+
+    public TokenController(BulkTokenService bulkTokenService, TokenIntrospectionService introspectionService,
+                           ObjectMapper objectMapper) {
+        this.bulkTokenService = bulkTokenService;
+        this.introspectionService = introspectionService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> issueTokens(@RequestBody BulkTokenRequest request) {
+        List<String> usernames = request.getUsernames() == null ? List.of() : request.getUsernames();
+        // limit yoxlanışı cavab başlamazdan əvvəl olmalıdır
+        bulkTokenService.checkLimit(usernames);
+        // Hər token imzalanan kimi bir JSON sətri kimi göndərilir, hamısı yaddaşda toplanmır
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+            bulkTokenService.issue(usernames, response -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(response));
+                    writer.write('\n');
+                    // servlet buferinə ötürülür, o dolduqca client-ə göndərilir
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    // RFC 7662: token form parametri ilə bir token
+    @PostMapping(value = "/introspect", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'INTROSPECT')")
+    public IntrospectionResponse introspect(@RequestParam("token") String token) {
+        return introspectionService.introspect(token);
+    }
+
+    // Gateway üçün: bir sorğuda çox token, cavablar eyni sırada qaytarılır
+    @PostMapping(value = "/introspect", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'INTROSPECT')")
+    public List<IntrospectionResponse> introspectBatch(@RequestBody IntrospectionRequest request) {
+        return introspectionService.introspect(request.getTokens() == null ? List.of() : request.getTokens());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> tooManyItems(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+}
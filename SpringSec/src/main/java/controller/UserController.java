@@ -0,0 +1,45 @@
+package controller;
+
+import dto.response.UserImportResponse;
+import dto.response.UserResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import security.UserPrincipal;
+import service.UserImportService;
+
+import java.io.IOException;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/v1/users")
+public class UserController {
+
+    private final UserImportService userImportService;
+
+    public UserController(UserImportService userImportService) {
+        this.userImportService = userImportService;
+    }
+
+    @GetMapping("/me")
+    public ResponseEntity<UserResponse> currentUser(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        // Token-dən gələn istifadəçi məlumatlarını qaytarırıq, bazaya müraciət olunmur
+        return ResponseEntity.ok(new UserResponse(userPrincipal.getId(), userPrincipal.getUsername()));
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserImportResponse> importUsers(HttpServletRequest request) throws IOException {
+        // Gövdə sətir-sətir oxunur, bütün fayl yaddaşa yüklənmir
+        UserImportResponse response = request.getContentType().startsWith("text/csv")
+                ? userImportService.importCsv(request.getInputStream())
+                : userImportService.importNdjson(request.getInputStream());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,10 @@
+package dto.request;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class IntrospectionRequest {
+    private List<String> tokens;
+}
@@ -0,0 +1,38 @@
+package dto.response;
+
+public class BulkTokenResponse {
+
+    private String username;
+    private String accessToken;
+    private String error;
+
+    public BulkTokenResponse(String username, String accessToken, String error) {
+        this.username = username;
+        this.accessToken = accessToken;
+        this.error = error;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public void setAccessToken(String accessToken) {
+        this.accessToken = accessToken;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
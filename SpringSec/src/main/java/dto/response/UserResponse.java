@@ -0,0 +1,28 @@
+package dto.response;
+
+public class UserResponse {
+
+    private int id;
+    private String username;
+
+    public UserResponse(int id, String username) {
+        this.id = id;
+        this.username = username;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+}
@@ -0,0 +1,78 @@
+package model;
+
+import liquibase.Contexts;
+import liquibase.LabelExpression;
+import liquibase.Liquibase;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * With {@code authentication.schema-check.enabled} the app does not run Liquibase
+ * while starting (see application-startup.yml). Instead the changelog is compared
+ * with the database on a background thread once the app is ready, and the health
+ * endpoint stays DOWN while change sets are pending or the check failed.
+ */
+@Component
+public class DeferredSchemaCheck implements HealthIndicator {
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final String changeLog;
+    private volatile Health health;
+
+    public DeferredSchemaCheck(DataSource dataSource,
+                               @Value("${authentication.schema-check.enabled:false}") boolean enabled,
+                               @Value("${spring.liquibase.change-log:classpath:db/changelog/master.xml}") String changeLog) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.changeLog = changeLog.startsWith("classpath:") ? changeLog.substring("classpath:".length()) : changeLog;
+        this.health = enabled
+                ? Health.unknown().withDetail("schema", "not checked yet").build()
+                : Health.up().withDetail("schema", "migrated at startup").build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkInBackground() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(this::check, "schema-check");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void check() {
+        try {
+            Database database = DatabaseFactory.getInstance()
+                    .findCorrectDatabaseImplementation(new JdbcConnection(dataSource.getConnection()));
+            try (Liquibase liquibase = new Liquibase(changeLog, new ClassLoaderResourceAccessor(), database)) {
+                List<ChangeSet> pending = liquibase.listUnrunChangeSets(new Contexts(), new LabelExpression());
+                health = pending.isEmpty()
+                        ? Health.up().withDetail("schema", "up to date").build()
+                        : Health.down()
+                                .withDetail("schema", "change sets pending")
+                                .withDetail("pending", pending.stream().map(ChangeSet::toString).toList())
+                                .build();
+            }
+        } catch (Exception e) {
+            health = Health.down(e).withDetail("schema", "check failed").build();
+        }
+    }
+
+    @Override
+    public Health health() {
+        return health;
+    }
+}
@@ -0,0 +1,33 @@
+package model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Entity
+@Table(name="refresh_tokens")
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "token_hash", unique = true, nullable = false, length = 64)
+    private String tokenHash;
+    @Column(name = "family_id", nullable = false, length = 64)
+    private String familyId;
+    @Column(name = "user_id", nullable = false)
+    private int userId;
+    @Column(nullable = false)
+    private String username;
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+    @Column(nullable = false)
+    private boolean used;
+    @Column(nullable = false)
+    private boolean revoked;
+
+    public RefreshToken() {
+
+    }
+}
@@ -3,18 +3,20 @@ package model.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.experimental.FieldDefaults;
+import security.UserDetailsCacheInvalidator;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Data
 @Entity
+@EntityListeners(UserDetailsCacheInvalidator.class)
 @Table(name="roles")
 public class Role {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private int id;
     private String name;
-    @OneToMany(mappedBy = "roles", cascade = CascadeType.ALL)
+    @OneToMany(mappedBy = "role", cascade = CascadeType.ALL)
     Set<User> users = new HashSet<>();
 }
@@ -2,16 +2,20 @@ package model.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import security.UserDetailsCacheInvalidator;
 import org.springframework.security.core.GrantedAuthority;
 
 import java.util.Collection;
 
 @Data
 @Entity
+@EntityListeners(UserDetailsCacheInvalidator.class)
 @Table(name="users")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // sequence ids let Hibernate batch inserts, which IDENTITY columns rule out
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private int id;
     @Column(unique = true, nullable = false)
     private String username;
@@ -19,7 +23,6 @@ public class User {
     private String password;
     @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @JoinColumn(name="role_id",referencedColumnName = "id")
-    @Column(nullable = false)
     private Role role;
 
     public User(String username, String password, Collection<GrantedAuthority> authorities) {
@@ -0,0 +1,15 @@
+package model.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import model.entity.RevokedToken;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+    List<RevokedToken> findByRevokedAtGreaterThanEqualAndIdGreaterThanAndExpiresAtAfterOrderByIdAsc(
+            Instant since, Long id, Instant now, Pageable pageable);
+
+    long deleteByExpiresAtBefore(Instant now);
+}
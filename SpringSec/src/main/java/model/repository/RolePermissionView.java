@@ -0,0 +1,11 @@
+package model.repository;
+
+/**
+ * One row of {@code role_permissions}: a permission granted by a role.
+ */
+public interface RolePermissionView {
+
+    Long getRoleId();
+
+    String getPermission();
+}
@@ -2,5 +2,12 @@ package model.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import model.entity.Role;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
 public interface RoleRepository extends JpaRepository<Role, Long> {
+
+    @Query(value = "select role_id as roleId, permission as permission from role_permissions", nativeQuery = true)
+    List<RolePermissionView> findAllPermissionGrants();
 }
@@ -0,0 +1,18 @@
+package model.repository;
+
+/**
+ * The columns a login needs, read in one query instead of the full {@code User}
+ * entity with its lazy role.
+ */
+public interface UserAuthView {
+
+    Integer getId();
+
+    String getUsername();
+
+    String getPassword();
+
+    Integer getRoleId();
+
+    String getRoleName();
+}
@@ -2,10 +2,23 @@ package model.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import model.entity.User;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Integer> {
     Optional<User> findByUsername(String username);
 
+    // single lookup on the unique username index, role joined in the same statement
+    @Query("select u.id as id, u.username as username, u.password as password, r.id as roleId, r.name as roleName " +
+            "from User u left join u.role r where u.username = :username")
+    Optional<UserAuthView> findAuthViewByUsername(@Param("username") String username);
+
+    @Query("select u.id as id, u.username as username, u.password as password, r.id as roleId, r.name as roleName " +
+            "from User u left join u.role r where u.username in :usernames")
+    List<UserAuthView> findAuthViewsByUsernameIn(@Param("usernames") Collection<String> usernames);
+
 }
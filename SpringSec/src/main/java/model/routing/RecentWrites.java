@@ -0,0 +1,77 @@
+package model.routing;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Usernames whose row this node changed recently. Their lookups go to the primary
+ * for as long as a replica may still serve the old row: up to {@code max-lag-ms}
+ * behind, plus one lag check before a replica that falls further behind is dropped.
+ * When full, one thread sweeps the map down to 90% of its size, expired names first.
+ */
+@Component
+public class RecentWrites {
+
+    private final boolean enabled;
+    private final long windowMs;
+    private final int maxSize;
+    private final int lowWaterMark;
+    private final Map<String, Long> untilMs = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    public RecentWrites(ReplicaProperties properties) {
+        this.enabled = properties.isEnabled() && !properties.getNodes().isEmpty();
+        this.windowMs = properties.getMaxLagMs() + properties.getLagCheckIntervalMs();
+        this.maxSize = properties.getRecentWritesMaxSize();
+        this.lowWaterMark = maxSize - Math.max(1, maxSize / 10);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(String username) {
+        if (!enabled || username == null) {
+            return;
+        }
+        if (untilMs.size() >= maxSize && evictionLock.tryLock()) {
+            try {
+                if (untilMs.size() >= maxSize) {
+                    makeRoom();
+                }
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        untilMs.put(username, System.currentTimeMillis() + windowMs);
+    }
+
+    public boolean isRecent(String username) {
+        if (!enabled) {
+            return false;
+        }
+        Long until = untilMs.get(username);
+        if (until == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() >= until) {
+            untilMs.remove(username, until);
+            return false;
+        }
+        return true;
+    }
+
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        untilMs.values().removeIf(until -> now >= until);
+        Iterator<String> keys = untilMs.keySet().iterator();
+        while (untilMs.size() > lowWaterMark && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
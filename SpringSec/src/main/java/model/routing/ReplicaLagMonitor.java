@@ -0,0 +1,91 @@
+package model.routing;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Writes the current time into {@code replica_heartbeat} on the primary and reads
+ * it back from every replica; the difference is how far behind that replica is.
+ * Replicas further behind than {@code max-lag-ms}, or that cannot be read, get no
+ * reads until they catch up again.
+ */
+public class ReplicaLagMonitor implements MeterBinder {
+
+    private static final String WRITE_HEARTBEAT = "UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1";
+    private static final String READ_HEARTBEAT = "SELECT beat_at FROM replica_heartbeat WHERE id = 1";
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final JdbcTemplate primary;
+    private final List<JdbcTemplate> replicas = new ArrayList<>();
+    private final long maxLagMs;
+    private final AtomicLongArray lagMs;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, long maxLagMs) {
+        this.routingDataSource = routingDataSource;
+        this.primary = new JdbcTemplate(routingDataSource.getPrimary());
+        routingDataSource.getReplicas().forEach(replica -> replicas.add(new JdbcTemplate(replica)));
+        this.maxLagMs = maxLagMs;
+        this.lagMs = new AtomicLongArray(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            lagMs.set(i, Long.MAX_VALUE);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${authentication.replicas.lag-check-interval-ms:1000}")
+    public void check() {
+        long now = System.currentTimeMillis();
+        try {
+            primary.update(WRITE_HEARTBEAT, now);
+        } catch (DataAccessException e) {
+            // primary unreachable: the replicas' lag can still be measured against the last beat
+        }
+        int[] healthy = new int[replicas.size()];
+        int count = 0;
+        for (int i = 0; i < replicas.size(); i++) {
+            long lag = lagOf(replicas.get(i), now);
+            lagMs.set(i, lag);
+            if (lag <= maxLagMs) {
+                healthy[count++] = i;
+            }
+        }
+        routingDataSource.setHealthy(Arrays.copyOf(healthy, count));
+    }
+
+    public long getLagMs(int replica) {
+        return lagMs.get(replica);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (int i = 0; i < replicas.size(); i++) {
+            int replica = i;
+            // NaN while the replica cannot be read
+            Gauge.builder("db.replica.lag", this, monitor -> monitor.getLagMs(replica) == Long.MAX_VALUE
+                            ? Double.NaN : monitor.getLagMs(replica))
+                    .tag("replica", String.valueOf(replica))
+                    .baseUnit("milliseconds")
+                    .description("Age of the newest heartbeat the replica has applied")
+                    .register(registry);
+        }
+        Gauge.builder("db.replica.healthy", routingDataSource, ReplicaRoutingDataSource::getHealthyCount)
+                .description("Replicas currently receiving read-only transactions").register(registry);
+    }
+
+    private static long lagOf(JdbcTemplate replica, long now) {
+        try {
+            Long beatAt = replica.queryForObject(READ_HEARTBEAT, Long.class);
+            return beatAt == null || beatAt == 0 ? Long.MAX_VALUE : Math.max(0, now - beatAt);
+        } catch (DataAccessException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package model.routing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas under {@code authentication.replicas}. A replica without its own
+ * credentials uses the ones from {@code spring.datasource}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "authentication.replicas")
+public class ReplicaProperties {
+
+    private boolean enabled;
+    private long maxLagMs = 5000;
+    private long lagCheckIntervalMs = 1000;
+    private int recentWritesMaxSize = 100000;
+    private List<Node> nodes = new ArrayList<>();
+
+    @Data
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,64 @@
+package model.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single {@code spring.datasource} pool with a primary pool and one
+ * pool per {@code authentication.replicas.nodes} entry. Liquibase, JPA and the
+ * JdbcTemplate all get the routing data source; only read-only transactions
+ * reach a replica.
+ */
+@Configuration
+@ConditionalOnProperty(name = "authentication.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             ReplicaProperties properties, Environment environment) {
+        HikariDataSource primary = pool(environment, dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class).build(), "primary");
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (ReplicaProperties.Node node : properties.getNodes()) {
+            replicas.add(pool(environment, dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(node.getUrl())
+                    .username(node.getUsername() != null ? node.getUsername() : dataSourceProperties.determineUsername())
+                    .password(node.getPassword() != null ? node.getPassword() : dataSourceProperties.determinePassword())
+                    .build(), "replica-" + replicas.size()));
+        }
+        return new ReplicaRoutingDataSource(primary, replicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        // the physical connection is only taken at the first statement, once the read-only flag is known
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                               ReplicaProperties properties) {
+        return new ReplicaLagMonitor(replicaRoutingDataSource, properties.getMaxLagMs());
+    }
+
+    // spring.datasource.hikari.* applies to every pool, as it did to the single one
+    private static HikariDataSource pool(Environment environment, HikariDataSource dataSource, String name) {
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("SpringSec-" + name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,74 @@
+package model.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions round-robin to the replicas {@link ReplicaLagMonitor}
+ * currently considers caught up, and everything else to the primary. Has to sit
+ * behind a {@code LazyConnectionDataSourceProxy}: the transaction's read-only flag
+ * is only set after the transaction manager asked for a connection.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    // indexes into replicas; none until the first lag check
+    private volatile int[] healthy = new int[0];
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadRouting.isPrimaryForced()) {
+            return PRIMARY;
+        }
+        int[] current = healthy;
+        if (current.length == 0) {
+            return PRIMARY;
+        }
+        return current[Math.floorMod(next.getAndIncrement(), current.length)];
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    public List<HikariDataSource> getReplicas() {
+        return replicas;
+    }
+
+    public int getHealthyCount() {
+        return healthy.length;
+    }
+
+    void setHealthy(int[] replicaIndexes) {
+        this.healthy = replicaIndexes;
+    }
+
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+        primary.close();
+    }
+}
@@ -0,0 +1,162 @@
+package security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that follows observed latency, after the gradient algorithm
+ * of Netflix's concurrency-limits. Each window compares the average request time
+ * with a slowly moving baseline: while they match the limit grows by about its
+ * square root, and when requests slow down (queueing behind the database or the
+ * hashing pool) it shrinks by up to half. Requests over the limit are refused
+ * at once. {@link Priority#LOGIN} traffic only gets a share of the limit, so it
+ * is shed before authenticated API calls are.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Priority {
+        // requests that carry a bearer token
+        AUTHENTICATED,
+        // login, refresh and other anonymous requests
+        LOGIN
+    }
+
+    // weight of one window in the long-term baseline, about the last 100 windows
+    private static final double BASELINE_WEIGHT = 0.01;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double loginShare;
+    private final double tolerance;
+    private final double smoothing;
+    private final long windowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder windowRttSum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicLong windowEnd;
+    private volatile double limit;
+    private volatile double baselineRttNanos;
+
+    private final Counter shedAuthenticated;
+    private final Counter shedLogin;
+
+    public AdaptiveConcurrencyLimiter(@Value("${authentication.concurrency-limit.enabled:true}") boolean enabled,
+                                      @Value("${authentication.concurrency-limit.initial-limit:100}") int initialLimit,
+                                      @Value("${authentication.concurrency-limit.min-limit:10}") int minLimit,
+                                      @Value("${authentication.concurrency-limit.max-limit:1000}") int maxLimit,
+                                      @Value("${authentication.concurrency-limit.login-share:0.5}") double loginShare,
+                                      @Value("${authentication.concurrency-limit.rtt-tolerance:1.5}") double tolerance,
+                                      @Value("${authentication.concurrency-limit.smoothing:0.2}") double smoothing,
+                                      @Value("${authentication.concurrency-limit.window-ms:100}") long windowMs,
+                                      MeterRegistry registry) {
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.loginShare = loginShare;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.windowEnd = new AtomicLong(System.nanoTime() + windowNanos);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+
+        Gauge.builder("http.admission.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit").register(registry);
+        Gauge.builder("http.admission.in-flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently admitted").register(registry);
+        this.shedAuthenticated = shed(registry, Priority.AUTHENTICATED);
+        this.shedLogin = shed(registry, Priority.LOGIN);
+    }
+
+    /**
+     * Admits the request if its priority class is under its share of the limit.
+     * Every admitted request must be followed by one {@link #release(long)}.
+     */
+    public boolean tryAcquire(Priority priority) {
+        if (!enabled) {
+            return true;
+        }
+        double current = limit;
+        int allowed = priority == Priority.AUTHENTICATED ? (int) current : Math.max(1, (int) (current * loginShare));
+        while (true) {
+            int admitted = inFlight.get();
+            if (admitted >= allowed) {
+                (priority == Priority.AUTHENTICATED ? shedAuthenticated : shedLogin).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(admitted, admitted + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long startNanos) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        int admitted = inFlight.getAndDecrement();
+        windowRttSum.add(now - startNanos);
+        windowSamples.increment();
+        long end = windowEnd.get();
+        // one releasing thread per window wins the CAS and recomputes the limit
+        if (now - end >= 0 && windowEnd.compareAndSet(end, now + windowNanos)) {
+            update(admitted);
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void update(int admitted) {
+        long samples = windowSamples.sumThenReset();
+        long rttSum = windowRttSum.sumThenReset();
+        if (samples == 0) {
+            return;
+        }
+        double shortRtt = (double) rttSum / samples;
+        double baseline = baselineRttNanos;
+        if (baseline == 0) {
+            baselineRttNanos = shortRtt;
+            return;
+        }
+        baseline = baseline * (1 - BASELINE_WEIGHT) + shortRtt * BASELINE_WEIGHT;
+        // after a long slow period let the baseline catch up instead of pinning the limit low
+        if (baseline / shortRtt > 2) {
+            baseline *= 0.95;
+        }
+        baselineRttNanos = baseline;
+
+        double current = limit;
+        // demand far below the limit says nothing about capacity
+        if (admitted < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baseline / shortRtt));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    private static Counter shed(MeterRegistry registry, Priority priority) {
+        return Counter.builder("http.admission.shed")
+                .description("Requests refused by the concurrency limiter")
+                .tag("priority", priority.name().toLowerCase())
+                .register(registry);
+    }
+}
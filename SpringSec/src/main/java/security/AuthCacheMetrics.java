@@ -0,0 +1,80 @@
+package security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import security.jwt.IntrospectionCache;
+import security.jwt.TokenRevocationStore;
+import security.jwt.VerifiedTokenCache;
+
+/**
+ * Publishes the counters the auth caches already keep and the login throttle
+ * limits, read lazily on scrape.
+ */
+@Component
+public class AuthCacheMetrics implements MeterBinder {
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final IntrospectionCache introspectionCache;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenRevocationStore revocationStore;
+    private final LoginThrottle loginThrottle;
+
+    public AuthCacheMetrics(VerifiedTokenCache verifiedTokenCache, IntrospectionCache introspectionCache,
+                            UserDetailsCache userDetailsCache, TokenRevocationStore revocationStore,
+                            LoginThrottle loginThrottle) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.introspectionCache = introspectionCache;
+        this.userDetailsCache = userDetailsCache;
+        this.revocationStore = revocationStore;
+        this.loginThrottle = loginThrottle;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("auth.cache.hits", verifiedTokenCache, VerifiedTokenCache::getHitCount)
+                .tag("cache", "verified-token").register(registry);
+        FunctionCounter.builder("auth.cache.misses", verifiedTokenCache, VerifiedTokenCache::getMissCount)
+                .tag("cache", "verified-token").register(registry);
+        FunctionCounter.builder("auth.cache.evictions", verifiedTokenCache, VerifiedTokenCache::getEvictionCount)
+                .tag("cache", "verified-token").register(registry);
+        Gauge.builder("auth.cache.size", verifiedTokenCache, VerifiedTokenCache::size)
+                .tag("cache", "verified-token").register(registry);
+
+        FunctionCounter.builder("auth.cache.hits", introspectionCache, IntrospectionCache::getHitCount)
+                .tag("cache", "introspection").register(registry);
+        FunctionCounter.builder("auth.cache.misses", introspectionCache, IntrospectionCache::getMissCount)
+                .tag("cache", "introspection").register(registry);
+        FunctionCounter.builder("auth.cache.evictions", introspectionCache, IntrospectionCache::getEvictionCount)
+                .tag("cache", "introspection").register(registry);
+        Gauge.builder("auth.cache.size", introspectionCache, IntrospectionCache::size)
+                .tag("cache", "introspection").register(registry);
+
+        FunctionCounter.builder("auth.cache.hits", userDetailsCache, UserDetailsCache::getHitCount)
+                .tag("cache", "user-details").register(registry);
+        FunctionCounter.builder("auth.cache.misses", userDetailsCache, UserDetailsCache::getMissCount)
+                .tag("cache", "user-details").register(registry);
+        FunctionCounter.builder("auth.cache.evictions", userDetailsCache, UserDetailsCache::getEvictionCount)
+                .tag("cache", "user-details").register(registry);
+        Gauge.builder("auth.cache.size", userDetailsCache, UserDetailsCache::size)
+                .tag("cache", "user-details").register(registry);
+
+        Gauge.builder("auth.revocation.size", revocationStore, TokenRevocationStore::size)
+                .description("Revoked tokens that have not expired yet").register(registry);
+
+        Gauge.builder("auth.login.throttle.size", loginThrottle, LoginThrottle::userEntries)
+                .tag("key", "user").register(registry);
+        Gauge.builder("auth.login.throttle.size", loginThrottle, LoginThrottle::ipEntries)
+                .tag("key", "ip").register(registry);
+        Gauge.builder("auth.login.throttle.burst", loginThrottle, LoginThrottle::getUserBurst)
+                .tag("key", "user").register(registry);
+        Gauge.builder("auth.login.throttle.burst", loginThrottle, LoginThrottle::getIpBurst)
+                .tag("key", "ip").register(registry);
+        Gauge.builder("auth.login.throttle.per-minute", loginThrottle, LoginThrottle::getUserPerMinute)
+                .tag("key", "user").register(registry);
+        Gauge.builder("auth.login.throttle.per-minute", loginThrottle, LoginThrottle::getIpPerMinute)
+                .tag("key", "ip").register(registry);
+    }
+}
@@ -0,0 +1,164 @@
+package security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers and counters for each stage of the authentication pipeline. All meters
+ * are registered up front, so recording is a clock read and a lock-free update.
+ */
+@Component
+public class AuthMetrics {
+
+    private final Timer tokenResolve;
+    private final Timer tokenVerify;
+    private final Timer tokenParse;
+    private final Timer revocationCheck;
+    private final Timer userLookup;
+    private final Timer passwordQueue;
+    private final Timer passwordHash;
+    private final Timer tokenSign;
+    private final Counter passwordRejected;
+    private final Counter loginThrottledUser;
+    private final Counter loginThrottledIp;
+
+    private final Counter failureExpired;
+    private final Counter failureSignature;
+    private final Counter failureUnsupported;
+    private final Counter failureMalformed;
+    private final Counter failureRevoked;
+    private final Counter failureOther;
+
+    public AuthMetrics(MeterRegistry registry) {
+        this.tokenResolve = timer(registry, "auth.token.resolve", "Bearer token extraction from the Authorization header");
+        this.tokenVerify = timer(registry, "auth.token.verify", "JWS decoding and signature verification on a verified-token cache miss (fast path, then jjwt if it declines)");
+        this.tokenParse = timer(registry, "auth.token.parse", "Mapping verified claims to a VerifiedToken");
+        this.revocationCheck = timer(registry, "auth.token.revocation", "Revocation store lookup");
+        this.userLookup = timer(registry, "auth.user.lookup", "User lookup in the database on a user-details cache miss");
+        this.passwordQueue = timer(registry, "auth.password.queue", "Wait for a password hashing thread");
+        this.passwordHash = timer(registry, "auth.password.hash", "BCrypt encode or match");
+        this.tokenSign = timer(registry, "auth.token.sign", "Access or refresh token signing");
+        this.passwordRejected = Counter.builder("auth.password.rejected")
+                .description("Password checks rejected because the hashing queue was full")
+                .register(registry);
+        this.loginThrottledUser = throttled(registry, "user");
+        this.loginThrottledIp = throttled(registry, "ip");
+
+        this.failureExpired = failure(registry, "expired");
+        this.failureSignature = failure(registry, "signature");
+        this.failureUnsupported = failure(registry, "unsupported");
+        this.failureMalformed = failure(registry, "malformed");
+        this.failureRevoked = failure(registry, "revoked");
+        this.failureOther = failure(registry, "other");
+    }
+
+    public void recordTokenResolve(long startNanos) {
+        tokenResolve.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTokenVerify(long startNanos) {
+        tokenVerify.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTokenParse(long startNanos) {
+        tokenParse.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRevocationCheck(long startNanos) {
+        revocationCheck.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordUserLookup(long startNanos) {
+        userLookup.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPasswordQueue(long startNanos) {
+        passwordQueue.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPasswordHash(long startNanos) {
+        passwordHash.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTokenSign(long startNanos) {
+        tokenSign.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void passwordRejected() {
+        passwordRejected.increment();
+    }
+
+    public void loginThrottledByUser() {
+        loginThrottledUser.increment();
+    }
+
+    public void loginThrottledByIp() {
+        loginThrottledIp.increment();
+    }
+
+    public void tokenExpired() {
+        failureExpired.increment();
+    }
+
+    public void tokenRevoked() {
+        failureRevoked.increment();
+    }
+
+    public void tokenSignatureInvalid() {
+        failureSignature.increment();
+    }
+
+    public void tokenMalformed() {
+        failureMalformed.increment();
+    }
+
+    public void tokenUnsupported() {
+        failureUnsupported.increment();
+    }
+
+    /**
+     * Counts a rejected token by the jjwt exception that rejected it.
+     */
+    public void tokenRejected(Exception e) {
+        if (e instanceof ExpiredJwtException) {
+            failureExpired.increment();
+        } else if (e instanceof SignatureException) {
+            failureSignature.increment();
+        } else if (e instanceof UnsupportedJwtException) {
+            failureUnsupported.increment();
+        } else if (e instanceof MalformedJwtException) {
+            failureMalformed.increment();
+        } else {
+            failureOther.increment();
+        }
+    }
+
+    private static Timer timer(MeterRegistry registry, String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+
+    private static Counter throttled(MeterRegistry registry, String key) {
+        return Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected with 429 before authentication")
+                .tag("key", key)
+                .register(registry);
+    }
+
+    private static Counter failure(MeterRegistry registry, String cause) {
+        return Counter.builder("auth.token.failures")
+                .description("Rejected tokens by cause")
+                .tag("cause", cause)
+                .register(registry);
+    }
+}
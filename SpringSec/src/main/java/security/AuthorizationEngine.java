@@ -0,0 +1,284 @@
+package security;
+
+import jakarta.annotation.PostConstruct;
+import model.entity.Role;
+import model.repository.RolePermissionView;
+import model.repository.RoleRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.core.GrantedAuthorityDefaults;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Decides method security checks from the {@code roles} and
+ * {@code role_permissions} tables compiled into bitsets. Bit {@code n} of a role
+ * mask is the role with id {@code n}, as in tokens (see {@link RoleAuthorities}),
+ * and each permission gets a bit of its own; more than 64 permissions fail the load.
+ * An expression is compiled once per snapshot into the bits it needs; a check is
+ * then a few ANDs on the principal's role mask and the permissions of those roles.
+ * A reload builds a new snapshot and swaps it in whole, compiled expressions included.
+ * Expressions left to SpEL see the same permissions, through {@link #withPermissions}.
+ */
+@Component
+public class AuthorizationEngine {
+
+    public static final int MAX_PERMISSIONS = 64;
+
+    private static final Pattern TERM = Pattern.compile(
+            "\\s*(hasRole|hasAnyRole|hasAuthority|hasAnyAuthority)\\s*\\(\\s*('[^']*'(?:\\s*,\\s*'[^']*')*)\\s*\\)\\s*");
+    private static final Pattern JOIN = Pattern.compile("and|or|&&|\\|\\|", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ARGUMENT = Pattern.compile("'([^']*)'");
+
+    private final RoleRepository roleRepository;
+    private final String rolePrefix;
+    private volatile Snapshot snapshot;
+
+    public AuthorizationEngine(RoleRepository roleRepository, ObjectProvider<GrantedAuthorityDefaults> authorityDefaults) {
+        this.roleRepository = roleRepository;
+        this.rolePrefix = RoleAuthorities.rolePrefix(authorityDefaults);
+        this.snapshot = new Snapshot(List.of(), List.of(), rolePrefix);
+    }
+
+    // role changes made through the app reload at once, see UserDetailsCacheInvalidator
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${authentication.authorization.reload-interval-ms:60000}")
+    public void reload() {
+        apply(roleRepository.findAll(), roleRepository.findAllPermissionGrants());
+    }
+
+    public void apply(Collection<Role> roles, Collection<RolePermissionView> grants) {
+        snapshot = new Snapshot(roles, grants, rolePrefix);
+    }
+
+    /**
+     * Whether {@code authentication} passes {@code expression}, or {@code null} when
+     * the expression is not one the engine compiles and SpEL has to decide it.
+     * Supported are {@code hasRole}, {@code hasAnyRole}, {@code hasAuthority} and
+     * {@code hasAnyAuthority} with quoted roles or permissions from the tables,
+     * joined by either {@code and} or {@code or}.
+     */
+    public Boolean check(String expression, Authentication authentication) {
+        Snapshot current = snapshot;
+        Decision decision = current.decisions.get(expression);
+        if (decision == null) {
+            decision = current.decisions.computeIfAbsent(expression, current::compile);
+        }
+        if (decision == Decision.UNSUPPORTED) {
+            return null;
+        }
+        if (authentication == null) {
+            return false;
+        }
+        long roleMask = current.roleMaskOf(authentication);
+        return decision.isGranted(roleMask, current.permissionMaskOf(roleMask, authentication));
+    }
+
+    /**
+     * {@code authentication} with the permissions of its roles added as
+     * authorities, for the checks SpEL decides. Tokens only carry roles, so
+     * without this {@code hasAuthority} on a permission would pass here and fail there.
+     */
+    public Authentication withPermissions(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return authentication;
+        }
+        Snapshot current = snapshot;
+        long permissionMask = current.permissionMaskOf(current.roleMaskOf(authentication), authentication);
+        if (permissionMask == 0) {
+            return authentication;
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(authentication.getAuthorities());
+        for (long bits = permissionMask; bits != 0; bits &= bits - 1) {
+            GrantedAuthority permission = current.permissionAuthorities[Long.numberOfTrailingZeros(bits)];
+            if (!authorities.contains(permission)) {
+                authorities.add(permission);
+            }
+        }
+        UsernamePasswordAuthenticationToken withPermissions = UsernamePasswordAuthenticationToken.authenticated(
+                authentication.getPrincipal(), authentication.getCredentials(), authorities);
+        withPermissions.setDetails(authentication.getDetails());
+        return withPermissions;
+    }
+
+    private static final class Snapshot {
+        private final String rolePrefix;
+        private final Map<String, Integer> idByAuthority = new HashMap<>();
+        private final Map<String, Integer> bitByPermission = new HashMap<>();
+        private final GrantedAuthority[] permissionAuthorities = new GrantedAuthority[MAX_PERMISSIONS];
+        private final long[] permissionsByRole = new long[RoleAuthorities.MAX_ROLE_ID + 1];
+        private final Map<String, Decision> decisions = new ConcurrentHashMap<>();
+
+        private Snapshot(Collection<Role> roles, Collection<RolePermissionView> grants, String rolePrefix) {
+            this.rolePrefix = rolePrefix;
+            for (Role role : roles) {
+                if (role.getId() >= 0 && role.getId() <= RoleAuthorities.MAX_ROLE_ID) {
+                    idByAuthority.put(toAuthority(role.getName()), role.getId());
+                }
+            }
+            for (RolePermissionView grant : grants) {
+                Long roleId = grant.getRoleId();
+                if (roleId == null || roleId < 0 || roleId > RoleAuthorities.MAX_ROLE_ID) {
+                    continue;
+                }
+                Integer bit = bitByPermission.get(grant.getPermission());
+                if (bit == null) {
+                    if (bitByPermission.size() == MAX_PERMISSIONS) {
+                        throw new RuntimeException("More than " + MAX_PERMISSIONS
+                                + " permissions in role_permissions, the authorization engine supports " + MAX_PERMISSIONS);
+                    }
+                    bit = bitByPermission.size();
+                    bitByPermission.put(grant.getPermission(), bit);
+                    permissionAuthorities[bit] = new SimpleGrantedAuthority(grant.getPermission());
+                }
+                permissionsByRole[roleId.intValue()] |= 1L << bit;
+            }
+        }
+
+        // tokens carry the mask already; other principals are looked up by authority
+        private long roleMaskOf(Authentication authentication) {
+            if (authentication.getPrincipal() instanceof UserPrincipal principal && principal.getRoleMask() >= 0) {
+                return principal.getRoleMask();
+            }
+            long mask = 0;
+            for (GrantedAuthority authority : authentication.getAuthorities()) {
+                Integer id = idByAuthority.get(authority.getAuthority());
+                if (id != null) {
+                    mask |= 1L << id;
+                }
+            }
+            return mask;
+        }
+
+        // permissions of the roles, plus those a principal without a mask holds directly
+        private long permissionMaskOf(long roleMask, Authentication authentication) {
+            long mask = 0;
+            for (long bits = roleMask; bits != 0; bits &= bits - 1) {
+                mask |= permissionsByRole[Long.numberOfTrailingZeros(bits)];
+            }
+            if (!(authentication.getPrincipal() instanceof UserPrincipal principal && principal.getRoleMask() >= 0)) {
+                for (GrantedAuthority authority : authentication.getAuthorities()) {
+                    Integer bit = bitByPermission.get(authority.getAuthority());
+                    if (bit != null) {
+                        mask |= 1L << bit;
+                    }
+                }
+            }
+            return mask;
+        }
+
+        private String toAuthority(String role) {
+            return role.startsWith(rolePrefix) ? role : rolePrefix + role;
+        }
+
+        private Decision compile(String expression) {
+            List<long[]> terms = new ArrayList<>();
+            String joiner = null;
+            Matcher term = TERM.matcher(expression);
+            Matcher join = JOIN.matcher(expression);
+            int position = 0;
+            while (true) {
+                term.region(position, expression.length());
+                if (!term.lookingAt()) {
+                    return Decision.UNSUPPORTED;
+                }
+                long[] bits = bitsOf(term.group(1), term.group(2));
+                if (bits == null) {
+                    return Decision.UNSUPPORTED;
+                }
+                terms.add(bits);
+                position = term.end();
+                if (position == expression.length()) {
+                    break;
+                }
+                join.region(position, expression.length());
+                if (!join.lookingAt()) {
+                    return Decision.UNSUPPORTED;
+                }
+                String operator = join.group().equals("&&") || join.group().toLowerCase(Locale.ROOT).equals("and") ? "and" : "or";
+                // no precedence or parentheses, mixed operators are left to SpEL
+                if (joiner != null && !joiner.equals(operator)) {
+                    return Decision.UNSUPPORTED;
+                }
+                joiner = operator;
+                position = join.end();
+            }
+            if ("or".equals(joiner)) {
+                long[] any = new long[2];
+                for (long[] bits : terms) {
+                    any[0] |= bits[0];
+                    any[1] |= bits[1];
+                }
+                terms = List.of(any);
+            }
+            return new Decision(terms);
+        }
+
+        // {role bits, permission bits} of one term; null when a name is not in the tables
+        private long[] bitsOf(String function, String arguments) {
+            boolean role = function.endsWith("Role");
+            boolean any = function.startsWith("hasAny");
+            Matcher argument = ARGUMENT.matcher(arguments);
+            long roles = 0;
+            long permissions = 0;
+            int count = 0;
+            while (argument.find()) {
+                count++;
+                String name = argument.group(1);
+                Integer id = idByAuthority.get(role ? toAuthority(name) : name);
+                if (id != null) {
+                    roles |= 1L << id;
+                    continue;
+                }
+                Integer bit = role ? null : bitByPermission.get(name);
+                if (bit == null) {
+                    return null;
+                }
+                permissions |= 1L << bit;
+            }
+            return any || count == 1 ? new long[]{roles, permissions} : null;
+        }
+    }
+
+    /**
+     * A compiled expression: one {role bits, permission bits} pair per term, each
+     * of which the principal has to hit at least one bit of.
+     */
+    private static final class Decision {
+        private static final Decision UNSUPPORTED = new Decision(List.of());
+
+        private final long[] roleBits;
+        private final long[] permissionBits;
+
+        private Decision(List<long[]> terms) {
+            roleBits = new long[terms.size()];
+            permissionBits = new long[terms.size()];
+            for (int i = 0; i < terms.size(); i++) {
+                roleBits[i] = terms.get(i)[0];
+                permissionBits[i] = terms.get(i)[1];
+            }
+        }
+
+        private boolean isGranted(long roleMask, long permissionMask) {
+            for (int i = 0; i < roleBits.length; i++) {
+                if ((roleMask & roleBits[i]) == 0 && (permissionMask & permissionBits[i]) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
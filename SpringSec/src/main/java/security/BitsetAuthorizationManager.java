@@ -0,0 +1,102 @@
+package security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.expression.MethodClassKey;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.authorization.method.SecuredAuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * {@code @PreAuthorize} and {@code @Secured} checks answered by
+ * {@link AuthorizationEngine}. The expression of each method is looked up once;
+ * expressions the engine does not compile go to Spring's own manager, which sees
+ * the permissions of the principal's roles as authorities too.
+ */
+final class BitsetAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final String NONE = "";
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    // looked up lazily: the advisors are created before the repositories
+    private final ObjectProvider<AuthorizationEngine> engine;
+    private final Function<AnnotatedElement, String> expressionOf;
+    private final AuthorizationManager<MethodInvocation> fallback;
+    private final Map<MethodClassKey, String> expressions = new ConcurrentHashMap<>();
+
+    private BitsetAuthorizationManager(ObjectProvider<AuthorizationEngine> engine,
+                                       Function<AnnotatedElement, String> expressionOf,
+                                       AuthorizationManager<MethodInvocation> fallback) {
+        this.engine = engine;
+        this.expressionOf = expressionOf;
+        this.fallback = fallback;
+    }
+
+    static BitsetAuthorizationManager preAuthorize(ObjectProvider<AuthorizationEngine> engine,
+                                                   MethodSecurityExpressionHandler expressionHandler) {
+        PreAuthorizeAuthorizationManager fallback = new PreAuthorizeAuthorizationManager();
+        fallback.setExpressionHandler(expressionHandler);
+        return new BitsetAuthorizationManager(engine, element -> {
+            PreAuthorize annotation = AnnotatedElementUtils.findMergedAnnotation(element, PreAuthorize.class);
+            return annotation == null ? null : annotation.value();
+        }, fallback);
+    }
+
+    static BitsetAuthorizationManager secured(ObjectProvider<AuthorizationEngine> engine) {
+        return new BitsetAuthorizationManager(engine, element -> {
+            Secured annotation = AnnotatedElementUtils.findMergedAnnotation(element, Secured.class);
+            return annotation == null ? null : Arrays.stream(annotation.value())
+                    .map(authority -> "'" + authority + "'")
+                    .collect(Collectors.joining(", ", "hasAnyAuthority(", ")"));
+        }, new SecuredAuthorizationManager());
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        String expression = expressionOf(invocation);
+        if (expression.isEmpty()) {
+            return null;
+        }
+        AuthorizationEngine current = engine.getObject();
+        Boolean granted = current.check(expression, authentication.get());
+        if (granted == null) {
+            return fallback.check(() -> current.withPermissions(authentication.get()), invocation);
+        }
+        return granted ? GRANTED : DENIED;
+    }
+
+    // the method's annotation, else the class's, as Spring resolves them
+    private String expressionOf(MethodInvocation invocation) {
+        Method method = invocation.getMethod();
+        Class<?> targetClass = invocation.getThis() != null ? AopUtils.getTargetClass(invocation.getThis()) : method.getDeclaringClass();
+        MethodClassKey key = new MethodClassKey(method, targetClass);
+        String expression = expressions.get(key);
+        if (expression == null) {
+            expression = expressions.computeIfAbsent(key, k -> {
+                String found = expressionOf.apply(AopUtils.getMostSpecificMethod(method, targetClass));
+                if (found == null) {
+                    found = expressionOf.apply(targetClass);
+                }
+                return found == null ? NONE : found;
+            });
+        }
+        return expression;
+    }
+}
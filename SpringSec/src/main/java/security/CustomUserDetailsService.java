@@ -1,24 +1,67 @@
 package security;
 
 import model.entity.User;
+import model.repository.UserAuthView;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import service.UserService;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserService userService;
+    private final UserDetailsCache userDetailsCache;
+    private final AuthMetrics authMetrics;
+    private final RoleAuthorities roleAuthorities;
 
-    public CustomUserDetailsService(UserService userService) {
+    public CustomUserDetailsService(UserService userService, UserDetailsCache userDetailsCache, AuthMetrics authMetrics,
+                                    RoleAuthorities roleAuthorities) {
         this.userService = userService;
+        this.userDetailsCache = userDetailsCache;
+        this.authMetrics = authMetrics;
+        this.roleAuthorities = roleAuthorities;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userService.findByUsername(username);
-        return new UserPrincipal(user.getId(),user.getUsername(),user.getPassword());
+        UserPrincipal cached = userDetailsCache.get(username);
+        if (cached != null) {
+            return cached;
+        }
+        long start = System.nanoTime();
+        UserAuthView user = userService.findAuthViewByUsername(username);
+        authMetrics.recordUserLookup(start);
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found: " + username);
+        }
+        UserPrincipal userPrincipal = new UserPrincipal(user.getId(),user.getUsername(),user.getPassword(),
+                roleAuthorities.authoritiesOfRole(user.getRoleId()));
+        userDetailsCache.put(userPrincipal);
+        return userPrincipal;
+    }
+
+    /**
+     * The user as stored now, for a refresh: fails when the user is gone, or the
+     * name now belongs to another user than the {@code userId} the token was issued to.
+     */
+    public UserPrincipal loadCurrentUser(int userId, String username) {
+        UserPrincipal userPrincipal = (UserPrincipal) loadUserByUsername(username);
+        if (userPrincipal.getId() != userId) {
+            throw new UsernameNotFoundException("User not found: " + username);
+        }
+        return userPrincipal;
+    }
+
+    // Called by DaoAuthenticationProvider after a successful login whose stored hash
+    // was made with a different BCrypt cost than the current encoder's
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userService.updatePassword(userDetails.getUsername(), newPassword);
+        userDetailsCache.evict(user.getUsername());
+        return new UserPrincipal(user.getId(),user.getUsername(),user.getPassword(),
+                roleAuthorities.authoritiesOfRole(user.getRole() == null ? null : user.getRole().getId()));
     }
 }
\ No newline at end of file
@@ -5,15 +5,21 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
+import security.audit.AuditEventType;
+import security.audit.AuditLog;
 import security.jwt.JwtProvider;
+import security.jwt.VerifiedToken;
 import java.io.IOException;
 
 public class JwtAuthorizationFilter extends OncePerRequestFilter {
 
+    @Autowired
     private JwtProvider jwtProvider;
+    @Autowired
+    private AuditLog auditLog;
     public JwtAuthorizationFilter() {}
     public JwtAuthorizationFilter(JwtProvider jwtProvider) {
         this.jwtProvider = jwtProvider;
@@ -23,11 +29,18 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        Authentication authentication = jwtProvider.getAuthentication(request);
+        VerifiedToken token = jwtProvider.verify(request);
 
-        if (authentication != null && jwtProvider.isTokenValid(request)){
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (token != null){
+            SecurityContextHolder.getContext().setAuthentication(jwtProvider.getAuthentication(token));
+        } else if (auditLog != null && isBearer(request.getHeader(HttpHeaders.AUTHORIZATION))) {
+            // a token was presented but is invalid, expired or revoked; the cause is in auth.token.failures
+            auditLog.record(AuditEventType.TOKEN_REJECTED, null, request.getRemoteAddr(), request.getRequestURI());
         }
         filterChain.doFilter(request,response);
     }
+
+    private static boolean isBearer(String authorization) {
+        return authorization != null && authorization.startsWith("Bearer ");
+    }
 }
\ No newline at end of file
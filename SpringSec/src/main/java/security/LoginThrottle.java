@@ -0,0 +1,166 @@
+package security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rate limit for login attempts, one {@link TokenBucket} per username and one
+ * per client address. Buckets live in bounded maps. When a map is full, one
+ * thread sweeps buckets that have refilled completely, down to 90% of
+ * {@code max-entries}. A bucket still in use is never dropped, since it would
+ * come back full; while the map is full of them, new keys share one overflow
+ * bucket with the same limit. Cycling through throwaway keys therefore cannot
+ * reset anyone's limit.
+ */
+@Component
+public class LoginThrottle {
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final Limit userLimit;
+    private final Limit ipLimit;
+    private final Buckets userBuckets;
+    private final Buckets ipBuckets;
+    private final AuthMetrics authMetrics;
+
+    public LoginThrottle(@Value("${authentication.login-throttle.enabled:true}") boolean enabled,
+                         @Value("${authentication.login-throttle.max-entries:100000}") int maxEntries,
+                         @Value("${authentication.login-throttle.per-user.burst:5}") int userBurst,
+                         @Value("${authentication.login-throttle.per-user.per-minute:10}") int userPerMinute,
+                         @Value("${authentication.login-throttle.per-ip.burst:20}") int ipBurst,
+                         @Value("${authentication.login-throttle.per-ip.per-minute:60}") int ipPerMinute,
+                         AuthMetrics authMetrics) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.userLimit = new Limit(userBurst, userPerMinute);
+        this.ipLimit = new Limit(ipBurst, ipPerMinute);
+        this.userBuckets = new Buckets(maxEntries);
+        this.ipBuckets = new Buckets(maxEntries);
+        this.authMetrics = authMetrics;
+    }
+
+    /**
+     * Takes one attempt from the client address and then from the username.
+     * Either may be {@code null} and is then not limited.
+     */
+    public void acquire(String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (clientIp != null) {
+            long wait = tryAcquire(ipBuckets, clientIp, ipLimit, now);
+            if (wait > 0) {
+                authMetrics.loginThrottledByIp();
+                throw new LoginThrottledException("Too many login attempts from " + clientIp, toRetryAfterSeconds(wait));
+            }
+        }
+        if (username != null) {
+            long wait = tryAcquire(userBuckets, username.toLowerCase(Locale.ROOT), userLimit, now);
+            if (wait > 0) {
+                authMetrics.loginThrottledByUser();
+                throw new LoginThrottledException("Too many login attempts for " + username, toRetryAfterSeconds(wait));
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getUserBurst() {
+        return userLimit.burst;
+    }
+
+    public int getUserPerMinute() {
+        return userLimit.perMinute;
+    }
+
+    public int getIpBurst() {
+        return ipLimit.burst;
+    }
+
+    public int getIpPerMinute() {
+        return ipLimit.perMinute;
+    }
+
+    public int userEntries() {
+        return userBuckets.entries.size();
+    }
+
+    public int ipEntries() {
+        return ipBuckets.entries.size();
+    }
+
+    private long tryAcquire(Buckets buckets, String key, Limit limit, long now) {
+        TokenBucket bucket = buckets.entries.get(key);
+        if (bucket == null) {
+            if (buckets.entries.size() >= maxEntries) {
+                buckets.sweep(now, limit);
+            }
+            bucket = buckets.entries.size() < maxEntries
+                    ? buckets.entries.computeIfAbsent(key, k -> new TokenBucket(now))
+                    : buckets.overflow;
+        }
+        return bucket.tryAcquire(now, limit.intervalNanos, limit.toleranceNanos);
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private static final class Buckets {
+        private final Map<String, TokenBucket> entries = new ConcurrentHashMap<>();
+        private final TokenBucket overflow = new TokenBucket(System.nanoTime());
+        private final ReentrantLock sweepLock = new ReentrantLock();
+        private final int maxEntries;
+        private final int lowWaterMark;
+        private volatile long nextSweepNanos = System.nanoTime();
+
+        private Buckets(int maxEntries) {
+            this.maxEntries = maxEntries;
+            this.lowWaterMark = maxEntries - Math.max(1, maxEntries / 10);
+        }
+
+        // a sweep that could not get below max-entries waits one refill interval before the next scan
+        private void sweep(long now, Limit limit) {
+            if (now - nextSweepNanos < 0 || !sweepLock.tryLock()) {
+                return;
+            }
+            try {
+                Iterator<TokenBucket> buckets = entries.values().iterator();
+                while (entries.size() > lowWaterMark && buckets.hasNext()) {
+                    if (buckets.next().isIdle(now)) {
+                        buckets.remove();
+                    }
+                }
+                if (entries.size() >= maxEntries) {
+                    nextSweepNanos = now + limit.intervalNanos;
+                }
+            } finally {
+                sweepLock.unlock();
+            }
+        }
+    }
+
+    private static final class Limit {
+        private final int burst;
+        private final int perMinute;
+        private final long intervalNanos;
+        private final long toleranceNanos;
+
+        private Limit(int burst, int perMinute) {
+            this.burst = Math.max(1, burst);
+            this.perMinute = Math.max(1, perMinute);
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / this.perMinute;
+            this.toleranceNanos = (this.burst - 1) * intervalNanos;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package security;
+
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.config.core.GrantedAuthorityDefaults;
+
+/**
+ * {@code @PreAuthorize} and {@code @Secured} go through {@link AuthorizationEngine}.
+ * {@code @PostAuthorize}, {@code @PreFilter} and {@code @PostFilter} are not used
+ * in this app and stay off.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableMethodSecurity(prePostEnabled = false)
+public class MethodSecurityConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor preAuthorizeAdvisor(ObjectProvider<AuthorizationEngine> engine,
+                                       ObjectProvider<GrantedAuthorityDefaults> authorityDefaults,
+                                       ApplicationContext context) {
+        // for the expressions left to SpEL, with @bean references and role prefix like Spring's own handler
+        DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        expressionHandler.setApplicationContext(context);
+        expressionHandler.setDefaultRolePrefix(RoleAuthorities.rolePrefix(authorityDefaults));
+        return AuthorizationManagerBeforeMethodInterceptor.preAuthorize(
+                BitsetAuthorizationManager.preAuthorize(engine, expressionHandler));
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor securedAdvisor(ObjectProvider<AuthorizationEngine> engine) {
+        return AuthorizationManagerBeforeMethodInterceptor.secured(BitsetAuthorizationManager.secured(engine));
+    }
+}
@@ -0,0 +1,26 @@
+package security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * The password encoder shared by the servlet and the reactive security setup.
+ */
+@Configuration
+public class PasswordEncoderConfig {
+
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${authentication.password.bcrypt.strength:10}") int strength,
+                                           @Value("${authentication.password.bcrypt.calibrate:false}") boolean calibrate,
+                                           @Value("${authentication.password.bcrypt.target-latency-ms:250}") long targetLatencyMs,
+                                           @Value("${authentication.password.hashing.pool-size:0}") int poolSize,
+                                           @Value("${authentication.password.hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${authentication.password.hashing.timeout-ms:5000}") long timeoutMs,
+                                           AuthMetrics authMetrics) {
+        int cost = calibrate ? BoundedBCryptPasswordEncoder.calibrate(targetLatencyMs) : strength;
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        return new BoundedBCryptPasswordEncoder(cost, threads, queueCapacity, timeoutMs, authMetrics);
+    }
+}
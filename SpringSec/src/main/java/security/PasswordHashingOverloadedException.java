@@ -0,0 +1,20 @@
+package security;
+
+/**
+ * Thrown when the password hashing pool has no room for a check or does not get
+ * to it in time. Says nothing about the password, so it is answered with 503
+ * instead of counting as a failed login.
+ */
+public class PasswordHashingOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingOverloadedException(String message, long retryAfterSeconds, Throwable cause) {
+        super(message, cause);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,127 @@
+package security;
+
+import jakarta.annotation.PostConstruct;
+import model.entity.Role;
+import model.repository.RoleRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.config.core.GrantedAuthorityDefaults;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared {@link GrantedAuthority} instances for the rows of the {@code roles}
+ * table, and the role-id bitmask used to carry them in tokens. Bit {@code n} of
+ * a mask stands for the role with id {@code n}, so only ids 0-63 are encodable.
+ * The authority list for each distinct mask is built once and then reused.
+ */
+@Component
+public class RoleAuthorities {
+
+    public static final int MAX_ROLE_ID = 63;
+
+    private final RoleRepository roleRepository;
+    private final String rolePrefix;
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of());
+
+    public RoleAuthorities(RoleRepository roleRepository, ObjectProvider<GrantedAuthorityDefaults> authorityDefaults) {
+        this.roleRepository = roleRepository;
+        this.rolePrefix = rolePrefix(authorityDefaults);
+    }
+
+    // the prefix SpEL's hasRole adds, so role authorities match it
+    static String rolePrefix(ObjectProvider<GrantedAuthorityDefaults> authorityDefaults) {
+        GrantedAuthorityDefaults defaults = authorityDefaults.getIfAvailable();
+        return defaults != null ? defaults.getRolePrefix() : "ROLE_";
+    }
+
+    @PostConstruct
+    public void reload() {
+        apply(roleRepository.findAll());
+    }
+
+    public void apply(Collection<Role> roles) {
+        Map<Integer, GrantedAuthority> byId = new HashMap<>();
+        Map<String, Integer> idByAuthority = new HashMap<>();
+        for (Role role : roles) {
+            if (role.getId() < 0 || role.getId() > MAX_ROLE_ID) {
+                continue;
+            }
+            GrantedAuthority authority = new SimpleGrantedAuthority(toAuthority(role.getName()));
+            byId.put(role.getId(), authority);
+            idByAuthority.put(authority.getAuthority(), role.getId());
+        }
+        snapshot = new Snapshot(byId, idByAuthority);
+    }
+
+    /**
+     * Bitmask for the given authorities, or {@code -1} when one of them has no
+     * encodable role id and the token has to carry role names instead.
+     */
+    public long maskOf(Collection<? extends GrantedAuthority> authorities) {
+        Snapshot current = snapshot;
+        long mask = 0;
+        for (GrantedAuthority authority : authorities) {
+            Integer id = current.idByAuthority.get(toAuthority(authority.getAuthority()));
+            if (id == null) {
+                return -1;
+            }
+            mask |= 1L << id;
+        }
+        return mask;
+    }
+
+    public List<GrantedAuthority> authoritiesOf(long mask) {
+        Snapshot current = snapshot;
+        List<GrantedAuthority> authorities = current.byMask.get(mask);
+        if (authorities == null) {
+            List<GrantedAuthority> built = new ArrayList<>(Long.bitCount(mask));
+            for (long bits = mask; bits != 0; bits &= bits - 1) {
+                GrantedAuthority authority = current.byId.get(Long.numberOfTrailingZeros(bits));
+                if (authority != null) {
+                    built.add(authority);
+                }
+            }
+            authorities = current.byMask.computeIfAbsent(mask, m -> List.copyOf(built));
+        }
+        return authorities;
+    }
+
+    public List<GrantedAuthority> authoritiesOfRole(Integer roleId) {
+        return roleId == null || roleId < 0 || roleId > MAX_ROLE_ID
+                ? List.of()
+                : authoritiesOf(1L << roleId);
+    }
+
+    /**
+     * The shared instance for a role name when the role is known, otherwise a new one.
+     */
+    public GrantedAuthority authorityOf(String role) {
+        String name = toAuthority(role);
+        Snapshot current = snapshot;
+        Integer id = current.idByAuthority.get(name);
+        return id != null ? current.byId.get(id) : new SimpleGrantedAuthority(name);
+    }
+
+    private String toAuthority(String role) {
+        return role.startsWith(rolePrefix) ? role : rolePrefix + role;
+    }
+
+    private static final class Snapshot {
+        private final Map<Integer, GrantedAuthority> byId;
+        private final Map<String, Integer> idByAuthority;
+        private final Map<Long, List<GrantedAuthority>> byMask = new ConcurrentHashMap<>();
+
+        private Snapshot(Map<Integer, GrantedAuthority> byId, Map<String, Integer> idByAuthority) {
+            this.byId = byId;
+            this.idByAuthority = idByAuthority;
+        }
+    }
+}
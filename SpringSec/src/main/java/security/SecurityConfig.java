@@ -1,16 +1,16 @@
 package security;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
-import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -18,23 +18,34 @@ import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @EnableWebSecurity
-@EnableGlobalMethodSecurity(prePostEnabled = true, securedEnabled = true)
 public class SecurityConfig {
 
     private final CustomUserDetailsService customUserDetailsService;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
 
-  public SecurityConfig(CustomUserDetailsService customUserDetailsService) {
+  public SecurityConfig(CustomUserDetailsService customUserDetailsService, AdaptiveConcurrencyLimiter concurrencyLimiter) {
       this.customUserDetailsService = customUserDetailsService;
+      this.concurrencyLimiter = concurrencyLimiter;
   }
 
-    private static final String[] AUTH_WHITELIST = {
+    // bypass the filter chain entirely
+    private static final String[] DOCS_WHITELIST = {
             "/swagger-ui.html",
             "/webjars/**",
             "/v3/api-docs/**",
             "/swagger-ui/**",
+    };
+
+    // go through the chain (and the concurrency limit) without authentication
+    private static final String[] AUTH_WHITELIST = {
             "/api/v1/users/sign-up",
             "/api/v1/auth/login",
+            "/api/auth/login",
+            "/api/auth/refresh",
+            "/api/auth/logout",
+            "/.well-known/jwks.json",
     };
 
     @Bean
@@ -47,7 +58,9 @@ public class SecurityConfig {
                         .requestMatchers(AUTH_WHITELIST).permitAll()
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtAuthorizationFilter(), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthorizationFilter(), UsernamePasswordAuthenticationFilter.class)
+                // requests are shed before any token verification is spent on them
+                .addFilterBefore(new ConcurrencyLimitFilter(concurrencyLimiter), JwtAuthorizationFilter.class);
 
         return http.build();
     }
@@ -58,13 +71,17 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
+        authenticationProvider.setUserDetailsService(customUserDetailsService);
+        authenticationProvider.setUserDetailsPasswordService(customUserDetailsService);
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        return authenticationProvider;
     }
 
     @Bean
     public WebSecurityCustomizer webSecurityCustomizer() {
-        return (web) -> web.ignoring().requestMatchers(AUTH_WHITELIST);
+        return (web) -> web.ignoring().requestMatchers(DOCS_WHITELIST);
     }
 
     @Bean
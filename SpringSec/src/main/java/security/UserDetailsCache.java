@@ -0,0 +1,129 @@
+package security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, TTL-based cache of {@link UserPrincipal}s in front of the
+ * {@code users} table. The eviction policy is {@code LRU} or {@code FIFO}.
+ * Entries are dropped explicitly when a user or role row changes, see
+ * {@link UserDetailsCacheInvalidator}.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final int maxSize;
+    private final long ttlMs;
+    private final Map<String, Entry> entries;
+    // a lock rather than synchronized, so virtual threads never pin their carrier here
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public UserDetailsCache(@Value("${authentication.user-cache.max-size:10000}") int maxSize,
+                            @Value("${authentication.user-cache.ttl-ms:300000}") long ttlMs,
+                            @Value("${authentication.user-cache.eviction-policy:LRU}") String evictionPolicy) {
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+        boolean accessOrder = "LRU".equalsIgnoreCase(evictionPolicy);
+        this.entries = new LinkedHashMap<>(16, 0.75f, accessOrder) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > UserDetailsCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public UserPrincipal get(String username) {
+        Entry entry;
+        lock.lock();
+        try {
+            entry = entries.get(username);
+            if (entry != null && entry.expiresAtMs <= System.currentTimeMillis()) {
+                entries.remove(username);
+                evictions.increment();
+                entry = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.principal;
+    }
+
+    public void put(UserPrincipal principal) {
+        if (maxSize <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            entries.put(principal.getUsername(), new Entry(principal, System.currentTimeMillis() + ttlMs));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void evict(String username) {
+        lock.lock();
+        try {
+            entries.remove(username);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void evictAll() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Entry {
+        private final UserPrincipal principal;
+        private final long expiresAtMs;
+
+        private Entry(UserPrincipal principal, long expiresAtMs) {
+            this.principal = principal;
+            this.expiresAtMs = expiresAtMs;
+        }
+    }
+}
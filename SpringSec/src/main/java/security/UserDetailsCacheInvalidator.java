@@ -0,0 +1,87 @@
+package security;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import model.entity.Role;
+import model.entity.User;
+import model.routing.ReadRouting;
+import model.routing.RecentWrites;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that drops cached user details whenever a user's
+ * password or role, or a role itself, changes. Evicts at once and again after
+ * commit, so a login that re-cached the old row in between does not keep it.
+ * Role changes also make {@link RoleAuthorities} and {@link AuthorizationEngine}
+ * re-read the roles table. The re-reads go to the primary, see {@link RecentWrites}.
+ * Other nodes learn of the change through {@link UserDetailsCacheSync}.
+ */
+@Component
+public class UserDetailsCacheInvalidator {
+
+    private final UserDetailsCache userDetailsCache;
+    private final RecentWrites recentWrites;
+    // looked up lazily: RoleAuthorities needs the repositories, which need this listener
+    private final ObjectProvider<RoleAuthorities> roleAuthorities;
+    private final ObjectProvider<AuthorizationEngine> authorizationEngine;
+    private final ObjectProvider<UserDetailsCacheSync> cacheSync;
+
+    public UserDetailsCacheInvalidator(UserDetailsCache userDetailsCache, RecentWrites recentWrites,
+                                       ObjectProvider<RoleAuthorities> roleAuthorities,
+                                       ObjectProvider<AuthorizationEngine> authorizationEngine,
+                                       ObjectProvider<UserDetailsCacheSync> cacheSync) {
+        this.userDetailsCache = userDetailsCache;
+        this.recentWrites = recentWrites;
+        this.roleAuthorities = roleAuthorities;
+        this.authorizationEngine = authorizationEngine;
+        this.cacheSync = cacheSync;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof User user) {
+            recentWrites.record(user.getUsername());
+            afterCommit(() -> userDetailsCache.evict(user.getUsername()));
+            cacheSync.ifAvailable(sync -> sync.publish(user.getUsername()));
+        } else if (entity instanceof Role) {
+            afterCommit(userDetailsCache::evictAll);
+            cacheSync.ifAvailable(sync -> sync.publish(null));
+            onCommit(() -> ReadRouting.onPrimary(() -> {
+                roleAuthorities.ifAvailable(RoleAuthorities::reload);
+                authorizationEngine.ifAvailable(AuthorizationEngine::reload);
+            }));
+        }
+    }
+
+    // the role table can only be re-read once the change is visible
+    private void onCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void afterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package security;
+
+import model.routing.ReadRouting;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Carries {@link UserDetailsCache} evictions to the other nodes, the way
+ * {@code TokenRevocationService} carries revocations. The transaction that
+ * changes a user or role writes a row to {@code user_cache_invalidations}; every
+ * node reads the rows written since its previous sync began, less
+ * {@code sync-overlap-ms}, and evicts what they name. A row without a username
+ * stands for a role change: the whole cache goes and the role tables are re-read.
+ * Another node may still accept a changed password or a deleted user for up to
+ * one {@code sync-interval-ms}, instead of the whole cache TTL.
+ */
+@Component
+public class UserDetailsCacheSync {
+
+    private static final String INSERT = "INSERT INTO user_cache_invalidations (username, invalidated_at) VALUES (?, ?)";
+    private static final String SELECT = "SELECT id, username, invalidated_at FROM user_cache_invalidations WHERE invalidated_at >= ?";
+    private static final String DELETE = "DELETE FROM user_cache_invalidations WHERE invalidated_at < ?";
+
+    private final UserDetailsCache userDetailsCache;
+    // looked up lazily: this is reached from a JPA entity listener, see UserDetailsCacheInvalidator
+    private final ObjectProvider<JdbcTemplate> jdbcTemplate;
+    private final ObjectProvider<RoleAuthorities> roleAuthorities;
+    private final ObjectProvider<AuthorizationEngine> authorizationEngine;
+    private final long overlapMs;
+    private final long retentionMs;
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+    // rows already applied within the overlap window, guarded by syncLock
+    private final Map<Long, Instant> applied = new HashMap<>();
+    private volatile Instant lastSyncedAt = Instant.now();
+
+    public UserDetailsCacheSync(UserDetailsCache userDetailsCache,
+                                ObjectProvider<JdbcTemplate> jdbcTemplate,
+                                ObjectProvider<RoleAuthorities> roleAuthorities,
+                                ObjectProvider<AuthorizationEngine> authorizationEngine,
+                                @Value("${authentication.user-cache.sync-overlap-ms:60000}") long overlapMs,
+                                @Value("${authentication.user-cache.cleanup-interval-ms:3600000}") long retentionMs) {
+        this.userDetailsCache = userDetailsCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.roleAuthorities = roleAuthorities;
+        this.authorizationEngine = authorizationEngine;
+        this.overlapMs = overlapMs;
+        this.retentionMs = Math.max(retentionMs, overlapMs);
+    }
+
+    /**
+     * Records that {@code username}, or every user when {@code null}, has to be
+     * evicted on all nodes. Runs inside the changing transaction, so the row
+     * commits or rolls back with the change.
+     */
+    public void publish(String username) {
+        jdbcTemplate.getObject().update(INSERT, username, Timestamp.from(Instant.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${authentication.user-cache.sync-interval-ms:5000}")
+    public void sync() {
+        syncLock.lock();
+        try {
+            Instant startedAt = Instant.now();
+            Instant since = lastSyncedAt.minusMillis(overlapMs);
+            boolean[] rolesChanged = new boolean[1];
+            jdbcTemplate.getObject().query(SELECT, row -> {
+                if (applied.putIfAbsent(row.getLong(1), row.getTimestamp(3).toInstant()) != null) {
+                    return;
+                }
+                String username = row.getString(2);
+                if (username == null) {
+                    rolesChanged[0] = true;
+                } else {
+                    userDetailsCache.evict(username);
+                }
+            }, Timestamp.from(since));
+            if (rolesChanged[0]) {
+                userDetailsCache.evictAll();
+                ReadRouting.onPrimary(() -> {
+                    roleAuthorities.ifAvailable(RoleAuthorities::reload);
+                    authorizationEngine.ifAvailable(AuthorizationEngine::reload);
+                });
+            }
+            applied.values().removeIf(invalidatedAt -> invalidatedAt.isBefore(since));
+            lastSyncedAt = startedAt;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${authentication.user-cache.cleanup-interval-ms:3600000}")
+    public void deleteOld() {
+        jdbcTemplate.getObject().update(DELETE, Timestamp.from(Instant.now().minusMillis(retentionMs)));
+    }
+}
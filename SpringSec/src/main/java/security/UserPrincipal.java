@@ -15,6 +15,12 @@ public class UserPrincipal implements UserDetails {
     private int id;
     private String username;
     private transient String password; //don't show up on serialized places
+    private Collection<? extends GrantedAuthority> authorities = DEFAULT_AUTHORITIES;
+    // role-id bits when the principal comes from a token, -1 otherwise
+    private long roleMask = -1;
+
+    private static final Collection<GrantedAuthority> DEFAULT_AUTHORITIES =
+            Collections.singletonList(new SimpleGrantedAuthority("USER"));
 
     public UserPrincipal() {
     }
@@ -25,6 +31,19 @@ public class UserPrincipal implements UserDetails {
         this.password = password;
     }
 
+    public UserPrincipal(int id, String username, String password, Collection<? extends GrantedAuthority> authorities) {
+        this(id, username, password);
+        if (authorities != null && !authorities.isEmpty()) {
+            this.authorities = authorities;
+        }
+    }
+
+    public UserPrincipal(int id, String username, String password, Collection<? extends GrantedAuthority> authorities,
+                         long roleMask) {
+        this(id, username, password, authorities);
+        this.roleMask = roleMask;
+    }
+
     public UserPrincipal(Optional<User> user) {
     }
 
@@ -32,9 +51,13 @@ public class UserPrincipal implements UserDetails {
         return id;
     }
 
+    public long getRoleMask() {
+        return roleMask;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.singletonList(new SimpleGrantedAuthority("USER"));
+        return authorities;
     }
 
     @Override
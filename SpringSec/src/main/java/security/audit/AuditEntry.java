@@ -0,0 +1,48 @@
+package security.audit;
+
+import java.time.Instant;
+
+/**
+ * One event read back from a segment file by {@link AuditSegmentReader}.
+ */
+public final class AuditEntry {
+
+    private final AuditEventType type;
+    private final long timestampMs;
+    private final String subject;
+    private final String clientIp;
+    private final String detail;
+
+    public AuditEntry(AuditEventType type, long timestampMs, String subject, String clientIp, String detail) {
+        this.type = type;
+        this.timestampMs = timestampMs;
+        this.subject = subject;
+        this.clientIp = clientIp;
+        this.detail = detail;
+    }
+
+    public AuditEventType getType() {
+        return type;
+    }
+
+    public long getTimestampMs() {
+        return timestampMs;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getClientIp() {
+        return clientIp;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    @Override
+    public String toString() {
+        return Instant.ofEpochMilli(timestampMs) + "\t" + type + "\t" + subject + "\t" + clientIp + "\t" + detail;
+    }
+}
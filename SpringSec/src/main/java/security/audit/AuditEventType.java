@@ -0,0 +1,20 @@
+package security.audit;
+
+/**
+ * Stored in segment files by ordinal: append new types at the end only.
+ */
+public enum AuditEventType {
+    LOGIN_SUCCESS,
+    LOGIN_FAILURE,
+    LOGIN_THROTTLED,
+    REFRESH_SUCCESS,
+    REFRESH_FAILURE,
+    LOGOUT,
+    TOKEN_REJECTED;
+
+    private static final AuditEventType[] VALUES = values();
+
+    static AuditEventType of(int ordinal) {
+        return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : null;
+    }
+}
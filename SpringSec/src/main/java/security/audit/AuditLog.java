@@ -0,0 +1,167 @@
+package security.audit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Authentication audit trail. Request threads only copy an event into a slot of a
+ * pre-allocated {@link AuditRingBuffer}; the "audit-writer" thread drains it in
+ * batches into memory-mapped segment files or batched JDBC inserts. When the
+ * buffer is full an event waits at most {@code full-wait-ms} (by default not at
+ * all) and is then dropped and counted.
+ */
+@Component
+public class AuditLog implements MeterBinder, DisposableBean {
+
+    private final boolean enabled;
+    private final AuditRingBuffer ringBuffer;
+    private final int batchSize;
+    private final long fullWaitNanos;
+    private final long idleWaitNanos;
+    private final String sinkType;
+    private final String directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final boolean forceOnFlush;
+    private final ObjectProvider<JdbcTemplate> jdbcTemplate;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean running;
+    private AuditSink sink;
+    private Thread writer;
+
+    public AuditLog(@Value("${authentication.audit.enabled:true}") boolean enabled,
+                    @Value("${authentication.audit.sink:file}") String sinkType,
+                    @Value("${authentication.audit.buffer-size:65536}") int bufferSize,
+                    @Value("${authentication.audit.batch-size:512}") int batchSize,
+                    @Value("${authentication.audit.full-wait-ms:0}") long fullWaitMs,
+                    @Value("${authentication.audit.idle-wait-ms:1}") long idleWaitMs,
+                    @Value("${authentication.audit.directory:audit}") String directory,
+                    @Value("${authentication.audit.segment-size-bytes:67108864}") int segmentSize,
+                    @Value("${authentication.audit.max-segments:100}") int maxSegments,
+                    @Value("${authentication.audit.force-on-flush:false}") boolean forceOnFlush,
+                    ObjectProvider<JdbcTemplate> jdbcTemplate) {
+        this.enabled = enabled;
+        this.sinkType = sinkType;
+        this.ringBuffer = new AuditRingBuffer(enabled ? bufferSize : 2);
+        this.batchSize = batchSize;
+        this.fullWaitNanos = TimeUnit.MILLISECONDS.toNanos(fullWaitMs);
+        this.idleWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, idleWaitMs));
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.forceOnFlush = forceOnFlush;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        sink = "jdbc".equalsIgnoreCase(sinkType)
+                ? new JdbcAuditSink(jdbcTemplate.getObject(), batchSize)
+                : new SegmentFileAuditSink(Paths.get(directory), segmentSize, maxSegments, forceOnFlush);
+        running = true;
+        writer = new Thread(this::drainLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public void record(AuditEventType type, String subject, String clientIp, String detail) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (ringBuffer.tryPublish(type, now, subject, clientIp, detail)) {
+            return;
+        }
+        if (fullWaitNanos > 0) {
+            long deadline = System.nanoTime() + fullWaitNanos;
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(50_000);
+                if (ringBuffer.tryPublish(type, now, subject, clientIp, detail)) {
+                    return;
+                }
+            }
+        }
+        dropped.increment();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    private void drainLoop() {
+        while (true) {
+            long failedBefore = failed.sum();
+            int drained = ringBuffer.drain(batchSize, sink, failed);
+            if (drained > 0) {
+                int appended = drained - (int) (failed.sum() - failedBefore);
+                try {
+                    sink.flush();
+                    written.add(appended);
+                } catch (RuntimeException e) {
+                    // e.g. the database is down: this batch is lost, the next one is tried again
+                    failed.add(appended);
+                }
+            } else if (running) {
+                LockSupport.parkNanos(idleWaitNanos);
+            } else if (ringBuffer.size() == 0) {
+                return;
+            } else {
+                // a producer claimed a slot but has not published it yet
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        if (!writer.isAlive()) {
+            sink.close();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("auth.audit.events", this, AuditLog::getWrittenCount)
+                .tag("outcome", "written").register(registry);
+        FunctionCounter.builder("auth.audit.events", this, AuditLog::getDroppedCount)
+                .tag("outcome", "dropped").description("Events dropped because the buffer was full").register(registry);
+        FunctionCounter.builder("auth.audit.events", this, AuditLog::getFailedCount)
+                .tag("outcome", "failed").description("Events the sink could not write").register(registry);
+        Gauge.builder("auth.audit.buffer.used", ringBuffer, AuditRingBuffer::size).register(registry);
+        Gauge.builder("auth.audit.buffer.capacity", ringBuffer, AuditRingBuffer::capacity).register(registry);
+    }
+}
@@ -0,0 +1,19 @@
+package security.audit;
+
+/**
+ * One pre-allocated slot of {@link AuditRingBuffer}, refilled for every event.
+ * Sinks must copy what they need before returning.
+ */
+final class AuditRecord {
+    AuditEventType type;
+    long timestampMs;
+    String subject;
+    String clientIp;
+    String detail;
+
+    void clear() {
+        subject = null;
+        clientIp = null;
+        detail = null;
+    }
+}
@@ -0,0 +1,87 @@
+package security.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded multi-producer, single-consumer queue over pre-allocated slots.
+ * A producer claims a sequence with one CAS, fills the slot and publishes it;
+ * the consumer reads published slots in sequence order. A full buffer is
+ * reported to the producer instead of blocking it.
+ */
+final class AuditRingBuffer {
+
+    private final AuditRecord[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    // next sequence to hand to a producer
+    private final AtomicLong claimed = new AtomicLong();
+    // next sequence the consumer reads; slots below it may be reused
+    private final AtomicLong consumed = new AtomicLong();
+
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AuditRecord[size];
+        this.published = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = new AuditRecord();
+            published.set(i, -1);
+        }
+    }
+
+    boolean tryPublish(AuditEventType type, long timestampMs, String subject, String clientIp, String detail) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed.get() >= slots.length) {
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        int index = (int) sequence & mask;
+        AuditRecord record = slots[index];
+        record.type = type;
+        record.timestampMs = timestampMs;
+        record.subject = subject;
+        record.clientIp = clientIp;
+        record.detail = detail;
+        // release: the consumer sees the fields once it sees the sequence
+        published.lazySet(index, sequence);
+        return true;
+    }
+
+    // consumer thread only; a record the sink throws on is counted in failed and skipped
+    int drain(int max, AuditSink sink, LongAdder failed) {
+        long next = consumed.get();
+        int count = 0;
+        while (count < max) {
+            int index = (int) next & mask;
+            if (published.get(index) != next) {
+                break;
+            }
+            AuditRecord record = slots[index];
+            try {
+                sink.append(record);
+            } catch (RuntimeException e) {
+                failed.increment();
+            }
+            record.clear();
+            next++;
+            count++;
+        }
+        if (count > 0) {
+            consumed.lazySet(next);
+        }
+        return count;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    // includes slots claimed but not yet published
+    int size() {
+        return (int) (claimed.get() - consumed.get());
+    }
+}
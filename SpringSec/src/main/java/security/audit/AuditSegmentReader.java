@@ -0,0 +1,121 @@
+package security.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Replays segment files written by {@link SegmentFileAuditSink} in the order
+ * they were written. Reading a segment stops at its end marker or at the first
+ * record whose checksum does not match, i.e. one torn by a crash.
+ * <p>
+ * As a tool: {@code ./gradlew auditReplay -PauditArgs='<dir or segment>... [--type=LOGIN_FAILURE]'}
+ * prints one tab separated line per event.
+ */
+public final class AuditSegmentReader {
+
+    private AuditSegmentReader() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        AuditEventType type = null;
+        List<Path> segments = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--type=")) {
+                type = AuditEventType.valueOf(arg.substring("--type=".length()));
+            } else if (Files.isDirectory(Paths.get(arg))) {
+                segments.addAll(segments(Paths.get(arg)));
+            } else {
+                segments.add(Paths.get(arg));
+            }
+        }
+        AuditEventType only = type;
+        for (Path segment : segments) {
+            read(segment, entry -> {
+                if (only == null || entry.getType() == only) {
+                    System.out.println(entry);
+                }
+            });
+        }
+    }
+
+    /**
+     * Segment files of {@code directory}, oldest first.
+     */
+    public static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SegmentFileAuditSink.PREFIX) && name.endsWith(SegmentFileAuditSink.SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    public static int replay(Path directory, Consumer<AuditEntry> consumer) throws IOException {
+        int count = 0;
+        for (Path segment : segments(directory)) {
+            count += read(segment, consumer);
+        }
+        return count;
+    }
+
+    public static int read(Path segment, Consumer<AuditEntry> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < SegmentFileAuditSink.HEADER_SIZE
+                    || buffer.getInt() != SegmentFileAuditSink.MAGIC
+                    || buffer.getInt() != SegmentFileAuditSink.VERSION) {
+                throw new IOException("Not an audit segment: " + segment);
+            }
+            buffer.getLong();
+            CRC32C crc = new CRC32C();
+            int count = 0;
+            while (buffer.remaining() >= 8) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                ByteBuffer body = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(body.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                consumer.accept(decode(body));
+                buffer.position(buffer.position() + length);
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private static AuditEntry decode(ByteBuffer body) {
+        AuditEventType type = AuditEventType.of(body.get());
+        long timestampMs = body.getLong();
+        return new AuditEntry(type, timestampMs, getString(body), getString(body), getString(body));
+    }
+
+    private static String getString(ByteBuffer body) {
+        short length = body.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
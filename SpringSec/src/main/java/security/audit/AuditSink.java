@@ -0,0 +1,15 @@
+package security.audit;
+
+/**
+ * Where the audit writer thread puts drained events. Only ever called from that
+ * one thread; {@link #flush()} ends each batch.
+ */
+interface AuditSink extends AutoCloseable {
+
+    void append(AuditRecord record);
+
+    void flush();
+
+    @Override
+    void close();
+}
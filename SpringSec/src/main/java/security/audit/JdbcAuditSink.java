@@ -0,0 +1,51 @@
+package security.audit;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes each drained batch to {@code auth_audit} as one JDBC batch insert.
+ */
+final class JdbcAuditSink implements AuditSink {
+
+    private static final String INSERT = "INSERT INTO auth_audit (occurred_at, event_type, subject, client_ip, detail) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<Object[]> batch;
+
+    JdbcAuditSink(JdbcTemplate jdbcTemplate, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batch = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public void append(AuditRecord record) {
+        batch.add(new Object[]{new Timestamp(record.timestampMs), record.type.name(),
+                truncate(record.subject, 255), truncate(record.clientIp, 64), truncate(record.detail, 2048)});
+    }
+
+    @Override
+    public void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT, batch);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    // column sizes of auth_audit
+    private static String truncate(String value, int max) {
+        return value == null || value.length() <= max ? value : value.substring(0, max);
+    }
+}
@@ -0,0 +1,153 @@
+package security.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Appends events to memory-mapped segment files of a fixed size, starting a new
+ * segment when the next record does not fit and deleting the oldest beyond
+ * {@code maxSegments}. Every start opens a new segment, an existing one is never
+ * appended to.
+ * <p>
+ * Layout: a 16 byte header (magic, version, creation time), then records of
+ * {@code int length, int crc32c, body}, with the body being {@code byte type,
+ * long timestampMs} and three strings as {@code short length (-1 for null)} plus
+ * UTF-8 bytes. The length is written last, so the zero-filled rest of the file,
+ * or a record torn by a crash, reads as the end of the segment.
+ */
+final class SegmentFileAuditSink implements AuditSink {
+
+    static final int MAGIC = 0x41554431; // "AUD1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int MAX_STRING_BYTES = 2048;
+    static final String PREFIX = "audit-";
+    static final String SUFFIX = ".seg";
+    static final int MIN_SEGMENT_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final boolean forceOnFlush;
+    private final ByteBuffer body = ByteBuffer.allocate(1 + 8 + 3 * (2 + MAX_STRING_BYTES));
+    private final CRC32C crc = new CRC32C();
+    private long nextSegment;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+
+    SegmentFileAuditSink(Path directory, int segmentSize, int maxSegments, boolean forceOnFlush) {
+        this.directory = directory;
+        this.segmentSize = Math.max(MIN_SEGMENT_SIZE, segmentSize);
+        this.maxSegments = maxSegments;
+        this.forceOnFlush = forceOnFlush;
+        try {
+            Files.createDirectories(directory);
+            List<Path> existing = AuditSegmentReader.segments(directory);
+            nextSegment = existing.isEmpty() ? 0 : indexOf(existing.get(existing.size() - 1)) + 1;
+            openSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void append(AuditRecord record) {
+        body.clear();
+        body.put((byte) record.type.ordinal());
+        body.putLong(record.timestampMs);
+        putString(record.subject);
+        putString(record.clientIp);
+        putString(record.detail);
+        body.flip();
+        int length = body.remaining();
+        crc.reset();
+        crc.update(body.array(), 0, length);
+
+        if (segment.remaining() < 8 + length) {
+            rotate();
+        }
+        int position = segment.position();
+        segment.position(position + 4);
+        segment.putInt((int) crc.getValue());
+        segment.put(body);
+        segment.putInt(position, length);
+    }
+
+    @Override
+    public void flush() {
+        // without force the data is in the page cache: safe from a process crash, not from a power loss
+        if (forceOnFlush) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            segment.force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void putString(String value) {
+        if (value == null) {
+            body.putShort((short) -1);
+            return;
+        }
+        int lengthAt = body.position();
+        body.putShort((short) 0);
+        int length = Math.min(value.length(), MAX_STRING_BYTES);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                // rare: usernames outside ASCII
+                body.position(lengthAt + 2);
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                length = Math.min(bytes.length, MAX_STRING_BYTES);
+                body.put(bytes, 0, length);
+                break;
+            }
+            body.put((byte) c);
+        }
+        body.putShort(lengthAt, (short) length);
+    }
+
+    private void rotate() {
+        try {
+            segment.force();
+            channel.close();
+            openSegment();
+            if (maxSegments > 0) {
+                List<Path> segments = AuditSegmentReader.segments(directory);
+                for (int i = 0; i < segments.size() - maxSegments; i++) {
+                    Files.deleteIfExists(segments.get(i));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void openSegment() throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", PREFIX, nextSegment++, SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segment.putInt(MAGIC).putInt(VERSION).putLong(System.currentTimeMillis());
+    }
+
+    private static long indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,60 @@
+package security.jwt;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over {@link TokenDigest} strings. Lookups hash the
+ * characters in place and allocate nothing; inserts are lock-free.
+ */
+class DigestBloomFilter {
+
+    private static final int HASH_FUNCTIONS = 7;
+
+    private final AtomicLongArray words;
+    private final int mask;
+
+    DigestBloomFilter(int expectedInsertions) {
+        // ~10 bits per entry keeps the false-positive rate around 1% with 7 hashes
+        int bits = Integer.highestOneBit(Math.max(64, expectedInsertions * 10 - 1)) << 1;
+        this.words = new AtomicLongArray(bits >>> 6);
+        this.mask = bits - 1;
+    }
+
+    void put(String digest) {
+        long h1 = hash(digest, 0xcbf29ce484222325L);
+        long h2 = hash(digest, 0x84222325cbf29ce4L) | 1;
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            int bit = (int) (h1 + i * h2) & mask;
+            int word = bit >>> 6;
+            long bitMask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & bitMask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(word, current, current | bitMask));
+        }
+    }
+
+    boolean mightContain(String digest) {
+        long h1 = hash(digest, 0xcbf29ce484222325L);
+        long h2 = hash(digest, 0x84222325cbf29ce4L) | 1;
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            int bit = (int) (h1 + i * h2) & mask;
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(String value, long seed) {
+        long h = seed;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h ^ (h >>> 29);
+    }
+}
@@ -0,0 +1,43 @@
+package security.jwt;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Signs Ed25519 tokens, which jjwt 0.11 cannot do. jjwt still builds the claims
+ * as an unsecured JWT; its header is replaced by {@code alg} and {@code kid} and
+ * the JDK's Ed25519 signature is appended.
+ */
+final class EdDsaSigner {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private EdDsaSigner() {
+    }
+
+    static String sign(String unsecuredJwt, SigningKey signingKey) {
+        int headerEnd = unsecuredJwt.indexOf('.');
+        int payloadEnd = unsecuredJwt.indexOf('.', headerEnd + 1);
+        Map<String, String> header = new LinkedHashMap<>();
+        header.put("alg", SigningKey.EDDSA);
+        header.put("kid", signingKey.getKid());
+        try {
+            String signingInput = ENCODER.encodeToString(OBJECT_MAPPER.writeValueAsBytes(header))
+                    + unsecuredJwt.substring(headerEnd, payloadEnd);
+            Signature signature = Signature.getInstance("Ed25519");
+            signature.initSign(signingKey.getPrivateKey());
+            signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + "." + ENCODER.encodeToString(signature.sign());
+        } catch (JsonProcessingException | GeneralSecurityException e) {
+            throw new RuntimeException("EdDSA signing error: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,578 @@
+package security.jwt;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Verifier for the tokens {@link JwtProvider} issues, without jjwt: the three
+ * base64url parts are decoded from the token string into per-thread buffers,
+ * the signature is checked with a per-thread {@link Signature} already
+ * initialised for the key id, and only {@code sub}, {@code userId},
+ * {@code rm}/{@code roles} and {@code exp} are read from the payload by a flat
+ * JSON scan. Failures are reported as a {@link Result}, never thrown.
+ * Anything outside that format (nested claims, {@code nbf}, compression) comes
+ * back as {@link Result#FALLBACK} for jjwt to handle. EdDSA tokens are only
+ * verified here, as jjwt 0.11 does not support them.
+ */
+final class FastJwtVerifier {
+
+    enum Result {
+        VALID,
+        MALFORMED,
+        UNSUPPORTED,
+        UNKNOWN_KEY,
+        BAD_SIGNATURE,
+        EXPIRED,
+        FALLBACK
+    }
+
+    /**
+     * Claims read from a valid token; reused by the caller, not thread-safe.
+     */
+    static final class Claims {
+        String subject;
+        long userId;
+        boolean hasUserId;
+        long roleMask;
+        boolean hasRoleMask;
+        String roles;
+        String type;
+        long expiresAtMs;
+        boolean hasExpiration;
+        boolean notBefore;
+
+        // header fields, read before the signature check
+        String algorithm;
+        String kid;
+        boolean unsupportedHeader;
+
+        private void reset() {
+            subject = null;
+            hasUserId = false;
+            hasRoleMask = false;
+            roles = null;
+            type = null;
+            hasExpiration = false;
+            notBefore = false;
+            algorithm = null;
+            kid = null;
+            unsupportedHeader = false;
+        }
+    }
+
+    private static final byte[] ALG = ascii("alg");
+    private static final byte[] KID = ascii("kid");
+    private static final byte[] ZIP = ascii("zip");
+    private static final byte[] CRIT = ascii("crit");
+    private static final byte[] SUB = ascii("sub");
+    private static final byte[] USER_ID = ascii("userId");
+    private static final byte[] ROLE_MASK = ascii("rm");
+    private static final byte[] ROLES = ascii("roles");
+    private static final byte[] TYP = ascii("typ");
+    private static final byte[] EXP = ascii("exp");
+    private static final byte[] NBF = ascii("nbf");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+    private static final byte[] NULL = ascii("null");
+
+    private static final int[] BASE64URL = new int[128];
+
+    static {
+        Arrays.fill(BASE64URL, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL[alphabet.charAt(i)] = i;
+        }
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final SigningKeyRing signingKeyRing;
+
+    FastJwtVerifier(SigningKeyRing signingKeyRing) {
+        this.signingKeyRing = signingKeyRing;
+    }
+
+    Result verify(String token, long nowMs, Claims claims) {
+        claims.reset();
+        int firstDot = token.indexOf('.');
+        int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+        if (secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+            return Result.MALFORMED;
+        }
+        Scratch scratch = SCRATCH.get();
+
+        int headerLength = scratch.decode(token, 0, firstDot, Scratch.HEADER);
+        if (headerLength < 0) {
+            return Result.MALFORMED;
+        }
+        Result result = parse(scratch.header, headerLength, claims, true);
+        if (result != Result.VALID) {
+            return result;
+        }
+        if (claims.unsupportedHeader) {
+            return Result.FALLBACK;
+        }
+        if (claims.algorithm == null) {
+            return Result.MALFORMED;
+        }
+        SigningKey key = signingKeyRing.getVerificationKey(claims.kid);
+        if (key == null) {
+            return Result.UNKNOWN_KEY;
+        }
+        // the key decides the algorithm, never the token
+        if (!key.getAlgorithmName().equals(claims.algorithm)) {
+            return Result.UNSUPPORTED;
+        }
+
+        int signatureLength = scratch.decode(token, secondDot + 1, token.length(), Scratch.SIGNATURE);
+        if (signatureLength < 0) {
+            return Result.MALFORMED;
+        }
+        Signature signature = scratch.signature(key);
+        if (signature == null) {
+            return Result.UNSUPPORTED;
+        }
+        byte[] signingInput = scratch.ascii(token, secondDot);
+        if (signingInput == null) {
+            return Result.MALFORMED;
+        }
+        try {
+            signature.update(signingInput, 0, secondDot);
+            if (!signature.verify(scratch.signature, 0, signatureLength)) {
+                return Result.BAD_SIGNATURE;
+            }
+        } catch (java.security.SignatureException e) {
+            // the provider throws for a signature of the wrong length or encoding
+            scratch.forget(key);
+            return Result.BAD_SIGNATURE;
+        }
+
+        int payloadLength = scratch.decode(token, firstDot + 1, secondDot, Scratch.PAYLOAD);
+        if (payloadLength < 0) {
+            return Result.MALFORMED;
+        }
+        result = parse(scratch.payload, payloadLength, claims, false);
+        if (result != Result.VALID) {
+            return result;
+        }
+        if (claims.notBefore || claims.subject == null || !claims.hasUserId) {
+            return Result.FALLBACK;
+        }
+        if (!claims.hasExpiration) {
+            return Result.UNSUPPORTED;
+        }
+        if (nowMs >= claims.expiresAtMs) {
+            return Result.EXPIRED;
+        }
+        return Result.VALID;
+    }
+
+    /**
+     * Scans one flat JSON object and keeps the fields {@link Claims} knows.
+     * Nested objects or arrays mean the token is not ours and go to jjwt.
+     */
+    private static Result parse(byte[] json, int length, Claims claims, boolean header) {
+        int i = skipWhitespace(json, 0, length);
+        if (i >= length || json[i] != '{') {
+            return Result.MALFORMED;
+        }
+        i = skipWhitespace(json, i + 1, length);
+        if (i < length && json[i] == '}') {
+            return skipWhitespace(json, i + 1, length) == length ? Result.VALID : Result.MALFORMED;
+        }
+        while (true) {
+            if (i >= length || json[i] != '"') {
+                return Result.MALFORMED;
+            }
+            int keyStart = i + 1;
+            int keyEnd = endOfString(json, keyStart, length);
+            if (keyEnd < 0) {
+                return Result.MALFORMED;
+            }
+            i = skipWhitespace(json, keyEnd + 1, length);
+            if (i >= length || json[i] != ':') {
+                return Result.MALFORMED;
+            }
+            i = skipWhitespace(json, i + 1, length);
+            if (i >= length) {
+                return Result.MALFORMED;
+            }
+
+            int valueEnd;
+            byte first = json[i];
+            if (first == '"') {
+                valueEnd = endOfString(json, i + 1, length);
+                if (valueEnd < 0) {
+                    return Result.MALFORMED;
+                }
+                if (header) {
+                    if (keyIs(json, keyStart, keyEnd, ALG)) {
+                        claims.algorithm = decodeString(json, i + 1, valueEnd);
+                    } else if (keyIs(json, keyStart, keyEnd, KID)) {
+                        claims.kid = decodeString(json, i + 1, valueEnd);
+                    } else if (keyIs(json, keyStart, keyEnd, ZIP)) {
+                        claims.unsupportedHeader = true;
+                    }
+                } else if (keyIs(json, keyStart, keyEnd, SUB)) {
+                    claims.subject = decodeString(json, i + 1, valueEnd);
+                } else if (keyIs(json, keyStart, keyEnd, ROLES)) {
+                    claims.roles = decodeString(json, i + 1, valueEnd);
+                } else if (keyIs(json, keyStart, keyEnd, TYP)) {
+                    claims.type = decodeString(json, i + 1, valueEnd);
+                } else if (keyIs(json, keyStart, keyEnd, USER_ID) || keyIs(json, keyStart, keyEnd, ROLE_MASK)
+                        || keyIs(json, keyStart, keyEnd, EXP) || keyIs(json, keyStart, keyEnd, NBF)) {
+                    return Result.FALLBACK;
+                }
+                valueEnd++;
+            } else if (first == '-' || (first >= '0' && first <= '9')) {
+                valueEnd = endOfNumber(json, i, length);
+                boolean integral = isIntegral(json, i, valueEnd);
+                if (header) {
+                    // numbers where jjwt expects strings: let it decide
+                    if (keyIs(json, keyStart, keyEnd, ALG) || keyIs(json, keyStart, keyEnd, KID)) {
+                        return Result.FALLBACK;
+                    }
+                } else if (keyIs(json, keyStart, keyEnd, USER_ID)) {
+                    if (!integral || valueEnd - i > 18) {
+                        return Result.FALLBACK;
+                    }
+                    claims.userId = parseLong(json, i, valueEnd);
+                    claims.hasUserId = true;
+                } else if (keyIs(json, keyStart, keyEnd, ROLE_MASK)) {
+                    if (!integral || valueEnd - i > 18) {
+                        return Result.FALLBACK;
+                    }
+                    claims.roleMask = parseLong(json, i, valueEnd);
+                    claims.hasRoleMask = true;
+                } else if (keyIs(json, keyStart, keyEnd, EXP)) {
+                    if (!integral || valueEnd - i > 12) {
+                        return Result.FALLBACK;
+                    }
+                    claims.expiresAtMs = parseLong(json, i, valueEnd) * 1000;
+                    claims.hasExpiration = true;
+                } else if (keyIs(json, keyStart, keyEnd, NBF)) {
+                    claims.notBefore = true;
+                } else if (keyIs(json, keyStart, keyEnd, SUB) || keyIs(json, keyStart, keyEnd, ROLES)
+                        || keyIs(json, keyStart, keyEnd, TYP)) {
+                    return Result.FALLBACK;
+                }
+            } else if (first == '{' || first == '[') {
+                return Result.FALLBACK;
+            } else {
+                valueEnd = endOfLiteral(json, i, length);
+                if (valueEnd < 0) {
+                    return Result.MALFORMED;
+                }
+                // true, false or null where we read a value: not our format
+                if (header ? keyIs(json, keyStart, keyEnd, ALG) || keyIs(json, keyStart, keyEnd, KID)
+                        : isClaimWeRead(json, keyStart, keyEnd)) {
+                    return Result.FALLBACK;
+                }
+            }
+            if (header && keyIs(json, keyStart, keyEnd, CRIT)) {
+                claims.unsupportedHeader = true;
+            }
+
+            i = skipWhitespace(json, valueEnd, length);
+            if (i >= length) {
+                return Result.MALFORMED;
+            }
+            if (json[i] == '}') {
+                return skipWhitespace(json, i + 1, length) == length ? Result.VALID : Result.MALFORMED;
+            }
+            if (json[i] != ',') {
+                return Result.MALFORMED;
+            }
+            i = skipWhitespace(json, i + 1, length);
+        }
+    }
+
+    private static boolean isClaimWeRead(byte[] json, int keyStart, int keyEnd) {
+        return keyIs(json, keyStart, keyEnd, SUB) || keyIs(json, keyStart, keyEnd, USER_ID)
+                || keyIs(json, keyStart, keyEnd, ROLE_MASK) || keyIs(json, keyStart, keyEnd, ROLES)
+                || keyIs(json, keyStart, keyEnd, EXP) || keyIs(json, keyStart, keyEnd, NBF)
+                || keyIs(json, keyStart, keyEnd, TYP);
+    }
+
+    private static int skipWhitespace(byte[] json, int i, int length) {
+        while (i < length && (json[i] == ' ' || json[i] == '\t' || json[i] == '\n' || json[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    // index of the closing quote
+    private static int endOfString(byte[] json, int i, int length) {
+        while (i < length) {
+            byte b = json[i];
+            if (b == '"') {
+                return i;
+            }
+            i += b == '\\' ? 2 : 1;
+        }
+        return -1;
+    }
+
+    private static int endOfNumber(byte[] json, int i, int length) {
+        i++;
+        while (i < length) {
+            byte b = json[i];
+            if ((b < '0' || b > '9') && b != '.' && b != 'e' && b != 'E' && b != '+' && b != '-') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isIntegral(byte[] json, int start, int end) {
+        int i = json[start] == '-' ? start + 1 : start;
+        if (i == end) {
+            return false;
+        }
+        for (; i < end; i++) {
+            if (json[i] < '0' || json[i] > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseLong(byte[] json, int start, int end) {
+        boolean negative = json[start] == '-';
+        long value = 0;
+        for (int i = negative ? start + 1 : start; i < end; i++) {
+            value = value * 10 + (json[i] - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private static int endOfLiteral(byte[] json, int i, int length) {
+        byte[] literal = json[i] == 't' ? TRUE : json[i] == 'f' ? FALSE : json[i] == 'n' ? NULL : null;
+        if (literal == null || i + literal.length > length || !keyIs(json, i, i + literal.length, literal)) {
+            return -1;
+        }
+        return i + literal.length;
+    }
+
+    private static boolean keyIs(byte[] json, int start, int end, byte[] name) {
+        if (end - start != name.length) {
+            return false;
+        }
+        for (int i = 0; i < name.length; i++) {
+            if (json[start + i] != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String decodeString(byte[] json, int start, int end) {
+        int escape = start;
+        while (escape < end && json[escape] != '\\') {
+            escape++;
+        }
+        if (escape == end) {
+            return new String(json, start, end - start, StandardCharsets.UTF_8);
+        }
+        // escapes are rare in our tokens, so the slow path may allocate
+        StringBuilder value = new StringBuilder(new String(json, start, escape - start, StandardCharsets.UTF_8));
+        int i = escape;
+        int run = i;
+        while (i < end) {
+            if (json[i] != '\\') {
+                i++;
+                continue;
+            }
+            value.append(new String(json, run, i - run, StandardCharsets.UTF_8));
+            byte escaped = i + 1 < end ? json[i + 1] : 0;
+            switch (escaped) {
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'u' -> {
+                    if (i + 6 > end) {
+                        return null;
+                    }
+                    int code = 0;
+                    for (int h = i + 2; h < i + 6; h++) {
+                        int digit = Character.digit(json[h], 16);
+                        if (digit < 0) {
+                            return null;
+                        }
+                        code = code << 4 | digit;
+                    }
+                    value.append((char) code);
+                    i += 4;
+                }
+                default -> value.append((char) escaped);
+            }
+            i += 2;
+            run = i;
+        }
+        value.append(new String(json, run, end - run, StandardCharsets.UTF_8));
+        return value.toString();
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Per-thread buffers and one initialised {@link Signature} per key id, so a
+     * verification allocates only the strings it returns.
+     */
+    private static final class Scratch {
+        static final int HEADER = 0;
+        static final int PAYLOAD = 1;
+        static final int SIGNATURE = 2;
+
+        byte[] header = new byte[128];
+        byte[] payload = new byte[512];
+        byte[] signature = new byte[512];
+        byte[] input = new byte[1024];
+        private final Map<String, KeyedSignature> signatures = new HashMap<>();
+
+        /**
+         * Decodes unpadded base64url {@code token[from, to)} into the chosen
+         * buffer and returns the byte count, or -1 for invalid input.
+         */
+        int decode(String token, int from, int to, int target) {
+            int chars = to - from;
+            if (chars % 4 == 1) {
+                return -1;
+            }
+            int length = chars / 4 * 3 + Math.max(0, chars % 4 - 1);
+            byte[] out = buffer(target, length);
+            int o = 0;
+            int bits = 0;
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                char c = token.charAt(i);
+                int value = c < 128 ? BASE64URL[c] : -1;
+                if (value < 0) {
+                    return -1;
+                }
+                bits = bits << 6 | value;
+                if (++count == 4) {
+                    out[o++] = (byte) (bits >> 16);
+                    out[o++] = (byte) (bits >> 8);
+                    out[o++] = (byte) bits;
+                    bits = 0;
+                    count = 0;
+                }
+            }
+            if (count == 2) {
+                out[o++] = (byte) (bits >> 4);
+            } else if (count == 3) {
+                out[o++] = (byte) (bits >> 10);
+                out[o++] = (byte) (bits >> 2);
+            }
+            return o;
+        }
+
+        // the signing input is the ASCII of header.payload
+        byte[] ascii(String token, int length) {
+            if (input.length < length) {
+                input = new byte[Integer.highestOneBit(length) << 1];
+            }
+            for (int i = 0; i < length; i++) {
+                char c = token.charAt(i);
+                if (c >= 128) {
+                    return null;
+                }
+                input[i] = (byte) c;
+            }
+            return input;
+        }
+
+        Signature signature(SigningKey key) {
+            KeyedSignature keyed = signatures.get(key.getKid());
+            if (keyed == null || keyed.key != key) {
+                try {
+                    keyed = new KeyedSignature(key, newSignature(key));
+                } catch (GeneralSecurityException e) {
+                    return null;
+                }
+                signatures.put(key.getKid(), keyed);
+            }
+            return keyed.signature;
+        }
+
+        // a Signature that threw may be left mid-operation, so it is rebuilt next time
+        void forget(SigningKey key) {
+            signatures.remove(key.getKid());
+        }
+
+        private byte[] buffer(int target, int length) {
+            switch (target) {
+                case HEADER -> {
+                    if (header.length < length) {
+                        header = new byte[Integer.highestOneBit(length) << 1];
+                    }
+                    return header;
+                }
+                case PAYLOAD -> {
+                    if (payload.length < length) {
+                        payload = new byte[Integer.highestOneBit(length) << 1];
+                    }
+                    return payload;
+                }
+                default -> {
+                    if (signature.length < length) {
+                        signature = new byte[Integer.highestOneBit(length) << 1];
+                    }
+                    return signature;
+                }
+            }
+        }
+
+        private static Signature newSignature(SigningKey key) throws GeneralSecurityException {
+            if (key.isEdDsa()) {
+                Signature signature = Signature.getInstance("Ed25519");
+                signature.initVerify(key.getPublicKey());
+                return signature;
+            }
+            SignatureAlgorithm algorithm = key.getAlgorithm();
+            Signature signature;
+            switch (algorithm) {
+                case RS256, RS384, RS512 -> signature = Signature.getInstance(algorithm.getJcaName());
+                // JWS carries ECDSA signatures as R || S, not DER
+                case ES256, ES384, ES512 -> signature = Signature.getInstance(algorithm.getJcaName() + "inP1363Format");
+                case PS256 -> signature = pss("SHA-256", MGF1ParameterSpec.SHA256, 32);
+                case PS384 -> signature = pss("SHA-384", MGF1ParameterSpec.SHA384, 48);
+                case PS512 -> signature = pss("SHA-512", MGF1ParameterSpec.SHA512, 64);
+                default -> throw new GeneralSecurityException("Unsupported algorithm " + algorithm);
+            }
+            signature.initVerify(key.getPublicKey());
+            return signature;
+        }
+
+        private static Signature pss(String digest, MGF1ParameterSpec mgf, int saltLength) throws GeneralSecurityException {
+            Signature signature = Signature.getInstance("RSASSA-PSS");
+            signature.setParameter(new PSSParameterSpec(digest, "MGF1", mgf, saltLength, 1));
+            return signature;
+        }
+    }
+
+    private static final class KeyedSignature {
+        private final SigningKey key;
+        private final Signature signature;
+
+        private KeyedSignature(SigningKey key, Signature signature) {
+            this.key = key;
+            this.signature = signature;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package security.jwt;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "authentication.refresh-token.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private final Map<String, RefreshTokenRecord> tokens = new ConcurrentHashMap<>();
+    private final Set<String> revokedFamilies = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void save(RefreshTokenRecord record) {
+        tokens.put(record.getTokenHash(), record);
+    }
+
+    @Override
+    public RefreshTokenRecord findByHash(String tokenHash) {
+        RefreshTokenRecord record = tokens.get(tokenHash);
+        if (record != null && !record.isRevoked() && revokedFamilies.contains(record.getFamilyId())) {
+            return new RefreshTokenRecord(record.getTokenHash(), record.getFamilyId(), record.getUserId(),
+                    record.getUsername(), record.getExpiresAt(), record.isUsed(), true);
+        }
+        return record;
+    }
+
+    @Override
+    public boolean markUsed(String tokenHash) {
+        RefreshTokenRecord record = tokens.get(tokenHash);
+        return record != null && !record.isUsed() && tokens.replace(tokenHash, record, record.withUsed());
+    }
+
+    @Override
+    public void revokeFamily(String familyId) {
+        revokedFamilies.add(familyId);
+    }
+
+    @Override
+    public void deleteExpired(Instant now) {
+        tokens.values().removeIf(record -> record.isExpired(now));
+        Set<String> liveFamilies = tokens.values().stream()
+                .map(RefreshTokenRecord::getFamilyId)
+                .collect(Collectors.toSet());
+        revokedFamilies.retainAll(liveFamilies);
+    }
+}
@@ -0,0 +1,123 @@
+package security.jwt;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Introspection outcomes keyed by {@link TokenDigest}, so a token a gateway asks
+ * about again costs one digest and one map lookup. An entry lives until the token
+ * expires but no longer than one revocation sync interval, the time another node's
+ * revocation may take to show up here; revocations made on this node invalidate
+ * the entry right away. A full cache is swept down to 90% of {@code max-size} by
+ * one thread, as in {@link VerifiedTokenCache}.
+ */
+@Component
+public class IntrospectionCache {
+
+    private final int maxSize;
+    private final int lowWaterMark;
+    private final long ttlMs;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public IntrospectionCache(@Value("${authentication.introspection.cache.max-size:100000}") int maxSize,
+                              @Value("${authentication.jwt.revocation.sync-interval-ms:5000}") long ttlMs) {
+        this.maxSize = maxSize;
+        this.lowWaterMark = maxSize - Math.max(1, maxSize / 10);
+        this.ttlMs = ttlMs;
+    }
+
+    public TokenIntrospection get(String digest) {
+        Entry entry = entries.get(digest);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.currentTimeMillis() >= entry.cachedUntilMs) {
+            if (entries.remove(digest, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.introspection;
+    }
+
+    public void put(String digest, TokenIntrospection introspection) {
+        if (maxSize <= 0) {
+            return;
+        }
+        long cachedUntilMs = System.currentTimeMillis() + ttlMs;
+        if (introspection.isActive()) {
+            cachedUntilMs = Math.min(cachedUntilMs, introspection.getToken().getExpiresAtMs());
+        }
+        if (entries.size() >= maxSize && evictionLock.tryLock()) {
+            try {
+                if (entries.size() >= maxSize) {
+                    makeRoom();
+                }
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        entries.put(digest, new Entry(introspection, cachedUntilMs));
+    }
+
+    public void invalidate(String digest) {
+        entries.remove(digest);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> {
+            if (now >= entry.cachedUntilMs) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        });
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() > lowWaterMark && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    private static final class Entry {
+        private final TokenIntrospection introspection;
+        private final long cachedUntilMs;
+
+        private Entry(TokenIntrospection introspection, long cachedUntilMs) {
+            this.introspection = introspection;
+            this.cachedUntilMs = cachedUntilMs;
+        }
+    }
+}
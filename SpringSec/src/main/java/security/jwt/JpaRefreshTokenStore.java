@@ -0,0 +1,55 @@
+package security.jwt;
+
+import model.entity.RefreshToken;
+import model.repository.RefreshTokenRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+@Component
+@ConditionalOnProperty(name = "authentication.refresh-token.store", havingValue = "jdbc")
+public class JpaRefreshTokenStore implements RefreshTokenStore {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    public JpaRefreshTokenStore(RefreshTokenRepository refreshTokenRepository) {
+        this.refreshTokenRepository = refreshTokenRepository;
+    }
+
+    @Override
+    public void save(RefreshTokenRecord record) {
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(record.getTokenHash());
+        refreshToken.setFamilyId(record.getFamilyId());
+        refreshToken.setUserId(record.getUserId());
+        refreshToken.setUsername(record.getUsername());
+        refreshToken.setExpiresAt(record.getExpiresAt());
+        refreshToken.setUsed(record.isUsed());
+        refreshToken.setRevoked(record.isRevoked());
+        refreshTokenRepository.save(refreshToken);
+    }
+
+    @Override
+    public RefreshTokenRecord findByHash(String tokenHash) {
+        return refreshTokenRepository.findByTokenHash(tokenHash)
+                .map(t -> new RefreshTokenRecord(t.getTokenHash(), t.getFamilyId(), t.getUserId(), t.getUsername(),
+                        t.getExpiresAt(), t.isUsed(), t.isRevoked()))
+                .orElse(null);
+    }
+
+    @Override
+    public boolean markUsed(String tokenHash) {
+        return refreshTokenRepository.markUsed(tokenHash) == 1;
+    }
+
+    @Override
+    public void revokeFamily(String familyId) {
+        refreshTokenRepository.revokeFamily(familyId);
+    }
+
+    @Override
+    public void deleteExpired(Instant now) {
+        refreshTokenRepository.deleteExpired(now);
+    }
+}
@@ -0,0 +1,31 @@
+package security.jwt;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Signing keys under {@code authentication.jwt.keys}. When the list is empty the
+ * single RS256 pair from {@code private-key}/{@code public-key} is used.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "authentication.jwt")
+public class JwtKeyProperties {
+
+    private List<Key> keys = new ArrayList<>();
+
+    @Data
+    public static class Key {
+        private String kid;
+        private String algorithm = "RS256";
+        private String privateKey; // empty for verify-only keys
+        private String publicKey;
+        private Instant activateAt;
+        private Instant retireAt;
+    }
+}
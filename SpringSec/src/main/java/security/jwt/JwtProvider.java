@@ -1,26 +1,28 @@
 package security.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.UnsupportedJwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
+import security.AuthMetrics;
+import security.CustomUserDetailsService;
+import security.RoleAuthorities;
 import security.UserPrincipal;
+import service.TokenRevocationService;
 
-import java.security.KeyFactory;
-import java.security.NoSuchAlgorithmException;
-import java.security.PrivateKey;
-import java.security.PublicKey;
-import java.security.spec.PKCS8EncodedKeySpec;
-import java.security.spec.X509EncodedKeySpec;
+import java.security.Key;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -39,70 +41,236 @@ public class JwtProvider {
 
     private static final String JWT_TOKEN_PREFIX = "Bearer";
     private static final String JWT_HEADER_STRING = "Authorization";
+    // bit n set for the role with id n, see RoleAuthorities
+    private static final String ROLE_MASK_CLAIM = "rm";
+    private static final String ROLES_CLAIM = "roles";
+    // set on refresh tokens only; they carry no roles and are refused as Bearer tokens
+    private static final String TOKEN_TYPE_CLAIM = "typ";
+    private static final String REFRESH_TOKEN_TYPE = "refresh";
 
-    private final PrivateKey jwtPrivateKey;
-    private final PublicKey jwtPublicKey;
-    private final Set<String> blacklistedTokens = new HashSet<>();
+    private final SigningKeyRing signingKeyRing;
+    private final JwtParser jwtParser;
+    private final FastJwtVerifier fastVerifier;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final IntrospectionCache introspectionCache;
+    private final TokenRevocationStore revocationStore;
+    private final TokenRevocationService revocationService;
+    private final AuthMetrics authMetrics;
+    private final RoleAuthorities roleAuthorities;
+    private final CustomUserDetailsService userDetailsService;
 
-    public JwtProvider(@Value("${authentication.jwt.private-key}") String jwtPrivateKeyStr,
-                       @Value("${authentication.jwt.public-key}") String jwtPublicKeyStr){
-        KeyFactory keyFactory = getKeyFactory();
-        try {
-            Base64.Decoder decoder = Base64.getDecoder();
-            PKCS8EncodedKeySpec privateKeySpec = new PKCS8EncodedKeySpec(decoder.decode(jwtPrivateKeyStr));
-            X509EncodedKeySpec publicKeySpec = new X509EncodedKeySpec(decoder.decode(jwtPublicKeyStr));
-
-            this.jwtPrivateKey = keyFactory.generatePrivate(privateKeySpec);
-            this.jwtPublicKey = keyFactory.generatePublic(publicKeySpec);
-        } catch (Exception e){
-            throw new RuntimeException("Invalid key specification: " + e.getMessage(), e);
-        }
+    public JwtProvider(SigningKeyRing signingKeyRing,
+                       VerifiedTokenCache verifiedTokenCache,
+                       IntrospectionCache introspectionCache,
+                       TokenRevocationStore revocationStore,
+                       TokenRevocationService revocationService,
+                       AuthMetrics authMetrics,
+                       RoleAuthorities roleAuthorities,
+                       CustomUserDetailsService userDetailsService){
+        this.signingKeyRing = signingKeyRing;
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        SigningKey key = signingKeyRing.getVerificationKey(header.getKeyId());
+                        if (key == null) {
+                            throw new UnsupportedJwtException("Unknown JWT key id: " + header.getKeyId());
+                        }
+                        return key.getPublicKey();
+                    }
+                })
+                .build();
+        this.fastVerifier = new FastJwtVerifier(signingKeyRing);
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.introspectionCache = introspectionCache;
+        this.revocationStore = revocationStore;
+        this.revocationService = revocationService;
+        this.authMetrics = authMetrics;
+        this.roleAuthorities = roleAuthorities;
+        this.userDetailsService = userDetailsService;
     }
 
     public String generateToken(UserPrincipal authentication){
-        String authorities = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.joining());
-
-        return Jwts.builder()
+        long start = System.nanoTime();
+        SigningKey signingKey = signingKeyRing.getSigningKey();
+        String token = sign(withRoles(Jwts.builder(), authentication)
                 .setSubject(authentication.getUsername())
                 .claim("userId", authentication.getId())
-                .claim("roles", authorities)
-                .setExpiration(new Date(System.currentTimeMillis() + JWT_EXPIRATION_IN_MS))
-                .signWith(jwtPrivateKey, SignatureAlgorithm.RS256)
-                .compact();
+                .setExpiration(new Date(System.currentTimeMillis() + JWT_EXPIRATION_IN_MS)), signingKey);
+        authMetrics.recordTokenSign(start);
+        return token;
     }
 
     public String generateRefreshToken(UserPrincipal authentication) {
-        return Jwts.builder()
+        long start = System.nanoTime();
+        SigningKey signingKey = signingKeyRing.getSigningKey();
+        String token = sign(Jwts.builder()
+                .claim(TOKEN_TYPE_CLAIM, REFRESH_TOKEN_TYPE)
                 .setSubject(authentication.getUsername())
                 .claim("userId", authentication.getId())
-                .setExpiration(new Date(System.currentTimeMillis() + JWT_REFRESH_EXPIRATION_IN_MS))
-                .signWith(jwtPrivateKey, SignatureAlgorithm.RS256)
+                .setExpiration(new Date(System.currentTimeMillis() + JWT_REFRESH_EXPIRATION_IN_MS)), signingKey);
+        authMetrics.recordTokenSign(start);
+        return token;
+    }
+
+    // jjwt 0.11 cannot sign EdDSA: it only serializes the claims, the JDK signs
+    private static String sign(JwtBuilder builder, SigningKey signingKey) {
+        if (signingKey.isEdDsa()) {
+            return EdDsaSigner.sign(builder.compact(), signingKey);
+        }
+        return builder.setHeaderParam(JwsHeader.KEY_ID, signingKey.getKid())
+                .signWith(signingKey.getPrivateKey(), signingKey.getAlgorithm())
                 .compact();
     }
 
+    /**
+     * Signs the access and refresh token for one login from the same principal,
+     * so the caller needs no second user lookup for the refresh token.
+     */
+    public TokenPair generateTokenPair(UserPrincipal authentication) {
+        return new TokenPair(generateToken(authentication), generateRefreshToken(authentication));
+    }
+
+    /**
+     * Verifies the signature of {@code token} once and caches the result until the
+     * token expires. Throws the usual jjwt exceptions for invalid tokens.
+     */
+    public VerifiedToken verify(String token) {
+        return verify(token, TokenDigest.of(token), true);
+    }
+
+    /**
+     * Tokens in our own format go through {@link FastJwtVerifier}. jjwt parses
+     * whatever it hands back, and also produces the exception when the caller
+     * wants one; otherwise a rejection is only counted and {@code null} returned.
+     */
+    private VerifiedToken verify(String token, String digest, boolean throwOnInvalid) {
+        VerifiedToken verified = verifiedTokenCache.get(digest);
+        if (verified != null) {
+            return verified;
+        }
+        FastJwtVerifier.Claims fastClaims = new FastJwtVerifier.Claims();
+        long start = System.nanoTime();
+        FastJwtVerifier.Result result = fastVerifier.verify(token, System.currentTimeMillis(), fastClaims);
+        authMetrics.recordTokenVerify(start);
+        if (result == FastJwtVerifier.Result.VALID) {
+            start = System.nanoTime();
+            Long mask = fastClaims.hasRoleMask ? fastClaims.roleMask : null;
+            List<GrantedAuthority> authorities = roles(mask, fastClaims.roles);
+            verified = new VerifiedToken(digest, fastClaims.subject, Math.toIntExact(fastClaims.userId),
+                    authorities, roleMask(mask, authorities), fastClaims.expiresAtMs,
+                    REFRESH_TOKEN_TYPE.equals(fastClaims.type));
+            authMetrics.recordTokenParse(start);
+            verifiedTokenCache.put(verified);
+            return verified;
+        }
+        if (result != FastJwtVerifier.Result.FALLBACK && !throwOnInvalid) {
+            countRejection(result);
+            return null;
+        }
+
+        start = System.nanoTime();
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        authMetrics.recordTokenVerify(start);
+
+        start = System.nanoTime();
+        if (claims.getExpiration() == null) {
+            throw new UnsupportedJwtException("JWT token has no expiration");
+        }
+        Long userId = claims.get("userId", Long.class);
+        Long mask = claims.get(ROLE_MASK_CLAIM, Long.class);
+        List<GrantedAuthority> authorities = readRoles(claims);
+        verified = new VerifiedToken(digest, claims.getSubject(), Math.toIntExact(userId), authorities,
+                roleMask(mask, authorities), claims.getExpiration().getTime(),
+                REFRESH_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM)));
+        authMetrics.recordTokenParse(start);
+        verifiedTokenCache.put(verified);
+        return verified;
+    }
+
+    /**
+     * Single verification step for the request filter: returns {@code null} when the
+     * request carries no token, or the token is invalid, expired or blacklisted.
+     */
+    public VerifiedToken verify(HttpServletRequest request) {
+        return verifyAuthorization(request.getHeader(JWT_HEADER_STRING));
+    }
+
+    /**
+     * {@link #verify(HttpServletRequest)} for a raw {@code Authorization} header
+     * value, for callers outside the servlet stack.
+     */
+    public VerifiedToken verifyAuthorization(String authorizationHeader) {
+        long start = System.nanoTime();
+        String token = resolveToken(authorizationHeader);
+        authMetrics.recordTokenResolve(start);
+        if (token == null) {
+            return null;
+        }
+        return verifyActive(token, TokenDigest.of(token));
+    }
+
+    /**
+     * RFC 7662 view of {@code token} for other services: active only when the
+     * signature is valid and the token is neither expired nor revoked. Outcomes are
+     * cached in {@link IntrospectionCache}.
+     */
+    public TokenIntrospection introspect(String token) {
+        String digest = TokenDigest.of(token);
+        TokenIntrospection introspection = introspectionCache.get(digest);
+        if (introspection == null) {
+            VerifiedToken verified = verifyActive(token, digest);
+            introspection = verified == null ? TokenIntrospection.INACTIVE : TokenIntrospection.active(verified);
+            introspectionCache.put(digest, introspection);
+        }
+        return introspection;
+    }
+
+    private VerifiedToken verifyActive(String token, String digest) {
+        VerifiedToken verified;
+        try {
+            verified = verify(token, digest, false);
+        } catch (Exception e) {
+            authMetrics.tokenRejected(e);
+            return null;
+        }
+        if (verified == null) {
+            return null;
+        }
+        if (verified.isRefresh()) {
+            authMetrics.tokenUnsupported();
+            return null;
+        }
+        if (verified.isExpired(System.currentTimeMillis())) {
+            authMetrics.tokenExpired();
+            return null;
+        }
+        long start = System.nanoTime();
+        boolean revoked = revocationStore.isRevoked(digest);
+        authMetrics.recordRevocationCheck(start);
+        if (revoked) {
+            authMetrics.tokenRevoked();
+            return null;
+        }
+        return verified;
+    }
+
+    public Authentication getAuthentication(VerifiedToken token) {
+        if (token.getSubject() == null || token.isRefresh()) {
+            return null;
+        }
+        UserDetails userDetails = new UserPrincipal(token.getUserId(), token.getSubject(), null, token.getAuthorities(),
+                token.getRoleMask());
+        return new UsernamePasswordAuthenticationToken(userDetails, null, token.getAuthorities());
+    }
+
     public Authentication getAuthentication(HttpServletRequest request){
         String token = resolveToken(request);
         if (token == null){
             return null;
         }
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(jwtPublicKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            String username = claims.getSubject();
-            Long userId = claims.get("userId", Long.class);
-            List<GrantedAuthority> authorities = Arrays.stream(claims.get("roles").toString().split(","))
-                    .map(role -> role.startsWith("ROLE_") ? role : "ROLE_" + role)
-                    .map(SimpleGrantedAuthority::new)
-                    .collect(Collectors.toList());
-
-            UserDetails userDetails = new UserPrincipal(Math.toIntExact(userId), username, null);
-            return username != null ? new UsernamePasswordAuthenticationToken(userDetails, null, authorities) : null;
+            return getAuthentication(verify(token));
         } catch (SignatureException e) {
             throw new RuntimeException("Invalid JWT signature: " + e.getMessage(), e);
         } catch (UnsupportedJwtException e) {
@@ -113,65 +281,101 @@ public class JwtProvider {
     }
 
     public boolean isTokenValid(HttpServletRequest request){
-        String token = resolveToken(request);
-        if (token == null || isTokenBlacklisted(token)){
-            return false;
-        }
-        try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(jwtPublicKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            if (claims.getExpiration().before(new Date())){
-                return false;
-            }
-            return true;
-        } catch (SignatureException | UnsupportedJwtException e) {
-            return false;
-        } catch (Exception e) {
-            return false;
-        }
+        return verify(request) != null;
     }
 
+    /**
+     * A new access token for the user of {@code oldToken}, which has to be a
+     * refresh token. Roles come from the user as stored now, so a demoted or
+     * deleted user cannot keep refreshing the roles it logged in with.
+     */
     public String refreshToken(String oldToken) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(jwtPublicKey)
-                    .build()
-                    .parseClaimsJws(oldToken)
-                    .getBody();
-
-            String username = claims.getSubject();
-            Long userId = claims.get("userId", Long.class);
-            return generateToken(new UserPrincipal(Math.toIntExact(userId), username, null));
-        } catch (SignatureException | UnsupportedJwtException e) {
+            if (isTokenBlacklisted(oldToken)) {
+                throw new RuntimeException("JWT token for refresh has been revoked");
+            }
+            // through verify, which also handles EdDSA tokens jjwt cannot parse
+            VerifiedToken verified = verify(oldToken);
+            if (!verified.isRefresh()) {
+                throw new RuntimeException("JWT token for refresh is not a refresh token");
+            }
+            return generateToken(userDetailsService.loadCurrentUser(verified.getUserId(), verified.getSubject()));
+        } catch (SignatureException | UnsupportedJwtException | UsernameNotFoundException e) {
             throw new RuntimeException("Invalid JWT token for refresh: " + e.getMessage(), e);
         }
     }
 
     public void blacklistToken(String token) {
-        blacklistedTokens.add(token);
+        try {
+            VerifiedToken verified = verify(token);
+            revocationService.revoke(verified.getDigest(), verified.getExpiresAtMs());
+            verifiedTokenCache.invalidate(verified.getDigest());
+            introspectionCache.invalidate(verified.getDigest());
+        } catch (Exception e) {
+            // invalid or expired tokens are rejected anyway, nothing to revoke
+        }
     }
 
     public boolean isTokenBlacklisted(String token) {
-        return blacklistedTokens.contains(token);
+        return revocationStore.isRevoked(TokenDigest.of(token));
+    }
+
+    /**
+     * Writes the principal's roles as a role-id bitmask, or as comma separated
+     * names when a role is not in the roles table.
+     */
+    private JwtBuilder withRoles(JwtBuilder builder, UserPrincipal principal) {
+        long mask = roleAuthorities.maskOf(principal.getAuthorities());
+        if (mask >= 0) {
+            return builder.claim(ROLE_MASK_CLAIM, mask);
+        }
+        return builder.claim(ROLES_CLAIM, principal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(",")));
+    }
+
+    private List<GrantedAuthority> readRoles(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        return roles(claims.get(ROLE_MASK_CLAIM, Long.class), roles == null ? null : roles.toString());
+    }
+
+    // the shared list from RoleAuthorities for masks; names are kept readable for older tokens
+    private List<GrantedAuthority> roles(Long mask, String roles) {
+        if (mask != null) {
+            return roleAuthorities.authoritiesOf(mask);
+        }
+        if (roles == null || roles.isEmpty()) {
+            return List.of();
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (String role : roles.split(",")) {
+            authorities.add(roleAuthorities.authorityOf(role));
+        }
+        return authorities;
+    }
+
+    // older tokens name their roles; their mask lets AuthorizationEngine skip the lookup
+    private long roleMask(Long mask, List<GrantedAuthority> authorities) {
+        return mask != null ? mask : roleAuthorities.maskOf(authorities);
+    }
+
+    private void countRejection(FastJwtVerifier.Result result) {
+        switch (result) {
+            case EXPIRED -> authMetrics.tokenExpired();
+            case BAD_SIGNATURE -> authMetrics.tokenSignatureInvalid();
+            case MALFORMED -> authMetrics.tokenMalformed();
+            default -> authMetrics.tokenUnsupported();
+        }
     }
 
     private String resolveToken(HttpServletRequest request){
-        String bearerToken = request.getHeader(JWT_HEADER_STRING);
+        return resolveToken(request.getHeader(JWT_HEADER_STRING));
+    }
+
+    private String resolveToken(String bearerToken){
         if (bearerToken != null && bearerToken.startsWith(JWT_TOKEN_PREFIX)){
             return bearerToken.substring(JWT_TOKEN_PREFIX.length() + 1);
         }
         return null;
     }
-
-    private KeyFactory getKeyFactory(){
-        try {
-            return KeyFactory.getInstance("RSA");
-        } catch (NoSuchAlgorithmException e){
-            throw new RuntimeException("Unknown key generation algorithm: " + e.getMessage(), e);
-        }
-    }
 }
@@ -0,0 +1,65 @@
+package security.jwt;
+
+import java.time.Instant;
+
+/**
+ * Server-side state of one opaque refresh token. Only the SHA-256 of the handle
+ * is kept; every token issued from the same login shares a {@code familyId}.
+ */
+public final class RefreshTokenRecord {
+
+    private final String tokenHash;
+    private final String familyId;
+    private final int userId;
+    private final String username;
+    private final Instant expiresAt;
+    private final boolean used;
+    private final boolean revoked;
+
+    public RefreshTokenRecord(String tokenHash, String familyId, int userId, String username, Instant expiresAt,
+                              boolean used, boolean revoked) {
+        this.tokenHash = tokenHash;
+        this.familyId = familyId;
+        this.userId = userId;
+        this.username = username;
+        this.expiresAt = expiresAt;
+        this.used = used;
+        this.revoked = revoked;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isUsed() {
+        return used;
+    }
+
+    public boolean isRevoked() {
+        return revoked;
+    }
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+
+    RefreshTokenRecord withUsed() {
+        return new RefreshTokenRecord(tokenHash, familyId, userId, username, expiresAt, true, revoked);
+    }
+}
@@ -0,0 +1,20 @@
+package security.jwt;
+
+import java.time.Instant;
+
+public interface RefreshTokenStore {
+
+    void save(RefreshTokenRecord record);
+
+    RefreshTokenRecord findByHash(String tokenHash);
+
+    /**
+     * Marks the token as used. Returns {@code true} only for the first caller, so
+     * two concurrent refreshes with the same handle cannot both succeed.
+     */
+    boolean markUsed(String tokenHash);
+
+    void revokeFamily(String familyId);
+
+    void deleteExpired(Instant now);
+}
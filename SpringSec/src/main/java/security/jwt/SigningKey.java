@@ -0,0 +1,83 @@
+package security.jwt;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Instant;
+
+public final class SigningKey {
+
+    public static final String EDDSA = "EdDSA";
+
+    private final String kid;
+    private final String algorithmName;
+    // null for EdDSA, which jjwt 0.11 does not know
+    private final SignatureAlgorithm algorithm;
+    private final PrivateKey privateKey;
+    private final PublicKey publicKey;
+    private final Instant activateAt;
+    private final Instant retireAt;
+
+    public SigningKey(String kid, SignatureAlgorithm algorithm, PrivateKey privateKey, PublicKey publicKey,
+                      Instant activateAt, Instant retireAt) {
+        this(kid, algorithm.getValue(), algorithm, privateKey, publicKey, activateAt, retireAt);
+    }
+
+    /**
+     * An Ed25519 key; tokens are signed by {@link EdDsaSigner} and verified by
+     * {@link FastJwtVerifier} with the JDK's own implementation.
+     */
+    public static SigningKey edDsa(String kid, PrivateKey privateKey, PublicKey publicKey,
+                                   Instant activateAt, Instant retireAt) {
+        return new SigningKey(kid, EDDSA, null, privateKey, publicKey, activateAt, retireAt);
+    }
+
+    private SigningKey(String kid, String algorithmName, SignatureAlgorithm algorithm, PrivateKey privateKey,
+                       PublicKey publicKey, Instant activateAt, Instant retireAt) {
+        this.kid = kid;
+        this.algorithmName = algorithmName;
+        this.algorithm = algorithm;
+        this.privateKey = privateKey;
+        this.publicKey = publicKey;
+        this.activateAt = activateAt != null ? activateAt : Instant.EPOCH;
+        this.retireAt = retireAt;
+    }
+
+    public String getKid() {
+        return kid;
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    // the JWS "alg" value
+    public String getAlgorithmName() {
+        return algorithmName;
+    }
+
+    public boolean isEdDsa() {
+        return algorithm == null;
+    }
+
+    public PrivateKey getPrivateKey() {
+        return privateKey;
+    }
+
+    public PublicKey getPublicKey() {
+        return publicKey;
+    }
+
+    public Instant getActivateAt() {
+        return activateAt;
+    }
+
+    public boolean isRetired(Instant now) {
+        return retireAt != null && !now.isBefore(retireAt);
+    }
+
+    public boolean canSign(Instant now) {
+        return privateKey != null && !now.isBefore(activateAt) && !isRetired(now);
+    }
+}
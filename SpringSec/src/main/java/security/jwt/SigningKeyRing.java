@@ -0,0 +1,190 @@
+package security.jwt;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.SignatureException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * All configured JWT keys, indexed by {@code kid}. A scheduled check picks the
+ * newest activated key for signing and drops retired ones, so keys rotate at
+ * their configured {@code activate-at}/{@code retire-at} without a restart.
+ * Each rotation precomputes the JWKS document served to other services.
+ */
+@Component
+public class SigningKeyRing {
+
+    public static final String DEFAULT_KID = "default";
+
+    private final List<SigningKey> keys;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private volatile Snapshot snapshot;
+
+    public SigningKeyRing(JwtKeyProperties properties,
+                          @Value("${authentication.jwt.private-key:}") String jwtPrivateKeyStr,
+                          @Value("${authentication.jwt.public-key:}") String jwtPublicKeyStr) {
+        List<SigningKey> keys = new ArrayList<>();
+        for (JwtKeyProperties.Key key : properties.getKeys()) {
+            keys.add(parse(key.getKid(), key.getAlgorithm(), key.getPrivateKey(), key.getPublicKey(),
+                    key.getActivateAt(), key.getRetireAt()));
+        }
+        if (keys.isEmpty()) {
+            keys.add(parse(DEFAULT_KID, "RS256", jwtPrivateKeyStr, jwtPublicKeyStr, null, null));
+        }
+        this.keys = List.copyOf(keys);
+        rotate();
+        if (snapshot == null) {
+            throw new RuntimeException("No active JWT signing key");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${authentication.jwt.key-rotation-check-ms:60000}")
+    public void rotate() {
+        Instant now = Instant.now();
+        SigningKey signingKey = null;
+        Map<String, SigningKey> verificationKeys = new LinkedHashMap<>();
+        for (SigningKey key : keys) {
+            if (key.isRetired(now)) {
+                continue;
+            }
+            verificationKeys.put(key.getKid(), key);
+            if (key.canSign(now) && (signingKey == null || key.getActivateAt().isAfter(signingKey.getActivateAt()))) {
+                signingKey = key;
+            }
+        }
+        Snapshot current = snapshot;
+        if (signingKey == null
+                || (current != null && current.signingKey == signingKey && current.verificationKeys.keySet().equals(verificationKeys.keySet()))) {
+            return;
+        }
+        String jwks = toJwks(verificationKeys.values());
+        snapshot = new Snapshot(signingKey, Collections.unmodifiableMap(verificationKeys), jwks,
+                "\"" + Integer.toHexString(jwks.hashCode()) + "\"");
+    }
+
+    public SigningKey getSigningKey() {
+        return snapshot.signingKey;
+    }
+
+    /**
+     * Key for a token header's {@code kid}. Tokens issued before key ids were
+     * added carry none and fall back to the {@value #DEFAULT_KID} key.
+     */
+    public SigningKey getVerificationKey(String kid) {
+        Map<String, SigningKey> verificationKeys = snapshot.verificationKeys;
+        return verificationKeys.get(kid != null ? kid : DEFAULT_KID);
+    }
+
+    public String getJwks() {
+        return snapshot.jwks;
+    }
+
+    public String getJwksEtag() {
+        return snapshot.jwksEtag;
+    }
+
+    private static SigningKey parse(String kid, String algorithmName, String privateKeyStr, String publicKeyStr,
+                                    Instant activateAt, Instant retireAt) {
+        // EdDSA means Ed25519 here; Ed448 keys are refused by the key factory
+        boolean edDsa = SigningKey.EDDSA.equalsIgnoreCase(algorithmName) || "Ed25519".equalsIgnoreCase(algorithmName);
+        SignatureAlgorithm algorithm = edDsa ? null : SignatureAlgorithm.forName(algorithmName);
+        if (!edDsa && !algorithm.isRsa() && !algorithm.isEllipticCurve()) {
+            throw new SignatureException("Unsupported JWT signing algorithm for key " + kid + ": " + algorithmName);
+        }
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(edDsa ? "Ed25519"
+                    : algorithm.getFamilyName().equals("ECDSA") ? "EC" : "RSA");
+            Base64.Decoder decoder = Base64.getDecoder();
+            PrivateKey privateKey = privateKeyStr == null || privateKeyStr.isBlank() ? null
+                    : keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decoder.decode(privateKeyStr)));
+            PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(decoder.decode(publicKeyStr)));
+            return edDsa
+                    ? SigningKey.edDsa(kid, privateKey, publicKey, activateAt, retireAt)
+                    : new SigningKey(kid, algorithm, privateKey, publicKey, activateAt, retireAt);
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid key specification for key " + kid + ": " + e.getMessage(), e);
+        }
+    }
+
+    private String toJwks(Collection<SigningKey> verificationKeys) {
+        List<Map<String, String>> jwks = new ArrayList<>();
+        for (SigningKey key : verificationKeys) {
+            Map<String, String> jwk = new LinkedHashMap<>();
+            if (key.getPublicKey() instanceof RSAPublicKey rsaKey) {
+                jwk.put("kty", "RSA");
+                jwk.put("n", base64Url(rsaKey.getModulus(), 0));
+                jwk.put("e", base64Url(rsaKey.getPublicExponent(), 0));
+            } else if (key.getPublicKey() instanceof ECPublicKey ecKey) {
+                int fieldBytes = (ecKey.getParams().getCurve().getField().getFieldSize() + 7) / 8;
+                jwk.put("kty", "EC");
+                jwk.put("crv", curveName(key.getAlgorithm()));
+                jwk.put("x", base64Url(ecKey.getW().getAffineX(), fieldBytes));
+                jwk.put("y", base64Url(ecKey.getW().getAffineY(), fieldBytes));
+            } else if (key.isEdDsa()) {
+                // RFC 8037: the raw 32-byte public key, the tail of its X.509 encoding
+                byte[] encoded = key.getPublicKey().getEncoded();
+                jwk.put("kty", "OKP");
+                jwk.put("crv", "Ed25519");
+                jwk.put("x", Base64.getUrlEncoder().withoutPadding()
+                        .encodeToString(Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length)));
+            }
+            jwk.put("kid", key.getKid());
+            jwk.put("use", "sig");
+            jwk.put("alg", key.getAlgorithmName());
+            jwks.add(jwk);
+        }
+        try {
+            return objectMapper.writeValueAsString(Map.of("keys", jwks));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("JWKS serialization error: " + e.getMessage(), e);
+        }
+    }
+
+    private static String curveName(SignatureAlgorithm algorithm) {
+        switch (algorithm) {
+            case ES256:
+                return "P-256";
+            case ES384:
+                return "P-384";
+            default:
+                return "P-521";
+        }
+    }
+
+    private static String base64Url(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        int start = bytes.length > 1 && bytes[0] == 0 ? 1 : 0;
+        int size = Math.max(bytes.length - start, length);
+        byte[] unsigned = new byte[size];
+        System.arraycopy(bytes, start, unsigned, size - (bytes.length - start), bytes.length - start);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(unsigned);
+    }
+
+    private static final class Snapshot {
+        private final SigningKey signingKey;
+        private final Map<String, SigningKey> verificationKeys;
+        private final String jwks;
+        private final String jwksEtag;
+
+        private Snapshot(SigningKey signingKey, Map<String, SigningKey> verificationKeys, String jwks, String jwksEtag) {
+            this.signingKey = signingKey;
+            this.verificationKeys = verificationKeys;
+            this.jwks = jwks;
+            this.jwksEtag = jwksEtag;
+        }
+    }
+}
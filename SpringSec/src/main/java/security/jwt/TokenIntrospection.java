@@ -0,0 +1,42 @@
+package security.jwt;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.stream.Collectors;
+
+/**
+ * Outcome of introspecting one token, as cached by {@link IntrospectionCache}.
+ * Immutable; every inactive outcome is the shared {@link #INACTIVE} instance so
+ * no reason for the rejection leaks to the caller.
+ */
+public final class TokenIntrospection {
+
+    public static final TokenIntrospection INACTIVE = new TokenIntrospection(null);
+
+    private final VerifiedToken token;
+    private final String scope;
+
+    private TokenIntrospection(VerifiedToken token) {
+        this.token = token;
+        this.scope = token == null ? null : token.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(" "));
+    }
+
+    public static TokenIntrospection active(VerifiedToken token) {
+        return new TokenIntrospection(token);
+    }
+
+    public boolean isActive() {
+        return token != null;
+    }
+
+    public VerifiedToken getToken() {
+        return token;
+    }
+
+    // space separated authorities, the format of the RFC 7662 scope member
+    public String getScope() {
+        return scope;
+    }
+}
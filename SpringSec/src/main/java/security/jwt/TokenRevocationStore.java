@@ -0,0 +1,84 @@
+package security.jwt;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Revoked tokens, keyed by {@link TokenDigest}. Entries are grouped into
+ * time buckets by the token's own expiry and dropped a whole bucket at a time
+ * once that expiry has passed, so memory only holds tokens that could still
+ * be presented. A Bloom filter answers the common "not revoked" case.
+ */
+@Component
+public class TokenRevocationStore {
+
+    private final long bucketMs;
+    private final int expectedEntries;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final NavigableMap<Long, Set<String>> buckets = new ConcurrentSkipListMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile DigestBloomFilter bloomFilter;
+
+    public TokenRevocationStore(@Value("${authentication.jwt.revocation.bucket-ms:60000}") long bucketMs,
+                                @Value("${authentication.jwt.revocation.expected-entries:100000}") int expectedEntries) {
+        this.bucketMs = bucketMs;
+        this.expectedEntries = expectedEntries;
+        this.bloomFilter = new DigestBloomFilter(expectedEntries);
+    }
+
+    public void revoke(String digest, long expiresAtMs) {
+        if (expiresAtMs <= System.currentTimeMillis()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            if (revoked.putIfAbsent(digest, expiresAtMs) == null) {
+                buckets.computeIfAbsent(expiresAtMs / bucketMs, k -> ConcurrentHashMap.newKeySet()).add(digest);
+                bloomFilter.put(digest);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean isRevoked(String digest) {
+        if (!bloomFilter.mightContain(digest)) {
+            return false;
+        }
+        return revoked.containsKey(digest);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    @Scheduled(fixedDelayString = "${authentication.jwt.revocation.bucket-ms:60000}")
+    public void pruneExpired() {
+        NavigableMap<Long, Set<String>> expired = buckets.headMap(System.currentTimeMillis() / bucketMs, false);
+        if (expired.isEmpty()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            for (Map.Entry<Long, Set<String>> bucket : expired.entrySet()) {
+                bucket.getValue().forEach(revoked::remove);
+            }
+            expired.clear();
+
+            DigestBloomFilter rebuilt = new DigestBloomFilter(Math.max(expectedEntries, revoked.size()));
+            revoked.keySet().forEach(rebuilt::put);
+            bloomFilter = rebuilt;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
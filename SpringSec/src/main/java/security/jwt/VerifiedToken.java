@@ -0,0 +1,90 @@
+package security.jwt;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Result of a successful signature check. Immutable, so one instance can be
+ * shared by every request that presents the same token.
+ */
+public final class VerifiedToken {
+
+    private final String digest;
+    private final String subject;
+    private final int userId;
+    private final List<GrantedAuthority> authorities;
+    private final long roleMask;
+    private final long expiresAtMs;
+    private final boolean refresh;
+
+    public VerifiedToken(String digest, String subject, int userId, List<GrantedAuthority> authorities, long expiresAtMs) {
+        this(digest, subject, userId, authorities, -1, expiresAtMs);
+    }
+
+    /**
+     * @param roleMask the role-id bits of {@code authorities}, see {@code RoleAuthorities},
+     *                 or {@code -1} when a role has no id
+     */
+    public VerifiedToken(String digest, String subject, int userId, List<GrantedAuthority> authorities, long roleMask,
+                         long expiresAtMs) {
+        this(digest, subject, userId, authorities, roleMask, expiresAtMs, false);
+    }
+
+    /**
+     * @param refresh whether this is a refresh token, which is only good for
+     *                {@code JwtProvider.refreshToken} and never as a Bearer token
+     */
+    public VerifiedToken(String digest, String subject, int userId, List<GrantedAuthority> authorities, long roleMask,
+                         long expiresAtMs, boolean refresh) {
+        this.digest = digest;
+        this.subject = subject;
+        this.userId = userId;
+        this.authorities = List.copyOf(authorities);
+        this.roleMask = roleMask;
+        this.expiresAtMs = expiresAtMs;
+        this.refresh = refresh;
+    }
+
+    public String getDigest() {
+        return digest;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public long getRoleMask() {
+        return roleMask;
+    }
+
+    public long getExpiresAtMs() {
+        return expiresAtMs;
+    }
+
+    public boolean isRefresh() {
+        return refresh;
+    }
+
+    public boolean isExpired(long nowMs) {
+        return nowMs >= expiresAtMs;
+    }
+
+    @Override
+    public String toString() {
+        return "VerifiedToken{" +
+                "subject='" + subject + '\'' +
+                ", userId=" + userId +
+                ", expiresAtMs=" + expiresAtMs +
+                ", refresh=" + refresh +
+                '}';
+    }
+}
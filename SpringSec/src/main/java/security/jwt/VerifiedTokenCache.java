@@ -0,0 +1,105 @@
+package security.jwt;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache of already verified tokens, keyed by {@link TokenDigest}.
+ * An entry lives until the token's own {@code exp}. When the cache is full, one
+ * thread sweeps it down to 90% of {@code max-size}: expired entries first, then
+ * arbitrary ones. The scan is paid once per tenth of the capacity, not per miss,
+ * and the other threads insert meanwhile instead of waiting for it.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final int maxSize;
+    private final int lowWaterMark;
+    private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public VerifiedTokenCache(@Value("${authentication.jwt.verified-cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+        this.lowWaterMark = maxSize - Math.max(1, maxSize / 10);
+    }
+
+    public VerifiedToken get(String digest) {
+        VerifiedToken token = entries.get(digest);
+        if (token == null) {
+            misses.increment();
+            return null;
+        }
+        if (token.isExpired(System.currentTimeMillis())) {
+            if (entries.remove(digest, token)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return token;
+    }
+
+    public void put(VerifiedToken token) {
+        if (maxSize <= 0) {
+            return;
+        }
+        if (entries.size() >= maxSize && evictionLock.tryLock()) {
+            try {
+                if (entries.size() >= maxSize) {
+                    makeRoom();
+                }
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        entries.put(token.getDigest(), token);
+    }
+
+    public void invalidate(String digest) {
+        entries.remove(digest);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(token -> {
+            if (token.isExpired(now)) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        });
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() > lowWaterMark && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+}
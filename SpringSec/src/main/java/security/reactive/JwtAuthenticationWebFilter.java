@@ -0,0 +1,40 @@
+package security.reactive;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import security.jwt.JwtProvider;
+import security.jwt.VerifiedToken;
+
+/**
+ * WebFlux counterpart of {@code JwtAuthorizationFilter}, with the same token
+ * checks. Verification stays on the event loop: a cache hit is a map lookup
+ * and a miss is one signature check, far cheaper than a thread hop.
+ */
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private final JwtProvider jwtProvider;
+
+    public JwtAuthenticationWebFilter(JwtProvider jwtProvider) {
+        this.jwtProvider = jwtProvider;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null) {
+            return chain.filter(exchange);
+        }
+        VerifiedToken token = jwtProvider.verifyAuthorization(authorization);
+        Authentication authentication = token == null ? null : jwtProvider.getAuthentication(token);
+        if (authentication == null) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+    }
+}
@@ -0,0 +1,72 @@
+package security.reactive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import security.AuthMetrics;
+import security.RoleAuthorities;
+import security.UserDetailsCache;
+import security.UserPrincipal;
+
+/**
+ * Reactive user lookup over R2DBC, reading the same columns as the JPA auth
+ * projection and sharing the user-details cache with the servlet stack.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class R2dbcUserDetailsService implements ReactiveUserDetailsService, ReactiveUserDetailsPasswordService {
+
+    private static final String FIND_USER = "SELECT id, username, password, role_id FROM users WHERE username = :username";
+    private static final String UPDATE_PASSWORD = "UPDATE users SET password = :password WHERE username = :username";
+
+    private final DatabaseClient databaseClient;
+    private final UserDetailsCache userDetailsCache;
+    private final RoleAuthorities roleAuthorities;
+    private final AuthMetrics authMetrics;
+
+    public R2dbcUserDetailsService(DatabaseClient databaseClient, UserDetailsCache userDetailsCache,
+                                   RoleAuthorities roleAuthorities, AuthMetrics authMetrics) {
+        this.databaseClient = databaseClient;
+        this.userDetailsCache = userDetailsCache;
+        this.roleAuthorities = roleAuthorities;
+        this.authMetrics = authMetrics;
+    }
+
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        UserPrincipal cached = userDetailsCache.get(username);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return databaseClient.sql(FIND_USER)
+                    .bind("username", username)
+                    .map(row -> {
+                        Long roleId = row.get("role_id", Long.class);
+                        return new UserPrincipal(Math.toIntExact(row.get("id", Long.class)),
+                                row.get("username", String.class), row.get("password", String.class),
+                                roleAuthorities.authoritiesOfRole(roleId == null ? null : Math.toIntExact(roleId)));
+                    })
+                    .one()
+                    .doOnNext(userDetailsCache::put)
+                    .doFinally(signal -> authMetrics.recordUserLookup(start));
+        }).cast(UserDetails.class);
+    }
+
+    @Override
+    public Mono<UserDetails> updatePassword(UserDetails user, String newPassword) {
+        return databaseClient.sql(UPDATE_PASSWORD)
+                .bind("password", newPassword)
+                .bind("username", user.getUsername())
+                .fetch()
+                .rowsUpdated()
+                .doOnSuccess(updated -> userDetailsCache.evict(user.getUsername()))
+                .thenReturn(new UserPrincipal(((UserPrincipal) user).getId(), user.getUsername(), newPassword,
+                        user.getAuthorities()));
+    }
+}
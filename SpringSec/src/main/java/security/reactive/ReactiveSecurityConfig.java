@@ -0,0 +1,94 @@
+package security.reactive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import security.jwt.JwtProvider;
+
+/**
+ * Security for the WebFlux runtime ({@code reactive} profile): the same open
+ * endpoints and bearer tokens as {@code SecurityConfig}, users read over R2DBC,
+ * and BCrypt checks and token signing kept off the event loop on a bounded
+ * scheduler that refuses work once its queue is full.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+public class ReactiveSecurityConfig {
+
+    private static final String[] AUTH_WHITELIST = {
+            "/api/v1/users/sign-up",
+            "/api/auth/login",
+            "/api/auth/refresh",
+            "/api/auth/logout",
+            "/.well-known/jwks.json",
+    };
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtProvider jwtProvider) {
+        return http
+                .csrf(csrf -> csrf.disable())
+                .httpBasic(httpBasic -> httpBasic.disable())
+                .formLogin(formLogin -> formLogin.disable())
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers(HttpMethod.OPTIONS).permitAll()
+                        .pathMatchers(AUTH_WHITELIST).permitAll()
+                        .anyExchange().authenticated()
+                )
+                // not a bean, so WebFlux does not also run it outside the security chain
+                .addFilterAt(new JwtAuthenticationWebFilter(jwtProvider), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    /**
+     * R2DBC auto-configuration is excluded (see application.yml): a
+     * {@code ConnectionFactory} bean would take the JDBC DataSource away from JPA
+     * and Liquibase. The factory is therefore kept inside the client.
+     */
+    @Bean
+    public DatabaseClient databaseClient(@Value("${spring.r2dbc.url}") String url,
+                                         @Value("${spring.r2dbc.username:}") String username,
+                                         @Value("${spring.r2dbc.password:}") String password) {
+        return DatabaseClient.create(ConnectionFactoryBuilder.withUrl(url)
+                .username(username)
+                .password(password)
+                .build());
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler authScheduler(@Value("${authentication.reactive.scheduler.threads:0}") int threads,
+                                   @Value("${authentication.reactive.scheduler.queue-capacity:1000}") int queueCapacity) {
+        return Schedulers.newBoundedElastic(threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                queueCapacity, "auth-cpu");
+    }
+
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(R2dbcUserDetailsService userDetailsService,
+                                                                       PasswordEncoder passwordEncoder,
+                                                                       Scheduler authScheduler) {
+        UserDetailsRepositoryReactiveAuthenticationManager authenticationManager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
+        authenticationManager.setPasswordEncoder(passwordEncoder);
+        authenticationManager.setUserDetailsPasswordService(userDetailsService);
+        // the password check runs here instead of on the event loop
+        authenticationManager.setScheduler(authScheduler);
+        return authenticationManager;
+    }
+}
@@ -1,27 +1,46 @@
 package service;
 import dto.request.SignInRequest;
 import security.jwt.JwtProvider;
+import security.jwt.TokenPair;
+import security.LoginThrottle;
 import security.UserPrincipal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
+// the reactive stack has its own sign-in in ReactiveAuthController
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AuthenticationService {
 
     private final AuthenticationManager authenticationManager;
     private final JwtProvider jwtProvider;
 
     private final UserService userService;
+    private final OpaqueRefreshTokenService opaqueRefreshTokenService;
+    private final LoginThrottle loginThrottle;
+    private final boolean opaqueRefreshTokens;
 
-    public AuthenticationService(AuthenticationManager authenticationManager, JwtProvider jwtProvider, UserService userService) {
+    public AuthenticationService(AuthenticationManager authenticationManager, JwtProvider jwtProvider, UserService userService,
+                                 OpaqueRefreshTokenService opaqueRefreshTokenService, LoginThrottle loginThrottle,
+                                 @Value("${authentication.refresh-token.mode:jwt}") String refreshTokenMode) {
         this.authenticationManager = authenticationManager;
         this.jwtProvider = jwtProvider;
         this.userService = userService;
+        this.opaqueRefreshTokenService = opaqueRefreshTokenService;
+        this.loginThrottle = loginThrottle;
+        this.opaqueRefreshTokens = "opaque".equalsIgnoreCase(refreshTokenMode);
     }
 
     public String singInAndReturnJWT(SignInRequest signInRequest){
+        return singInAndReturnJWT(signInRequest, null);
+    }
+
+    public String singInAndReturnJWT(SignInRequest signInRequest, String clientIp){
+        loginThrottle.acquire(signInRequest.getUsername(), clientIp);
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(signInRequest.getUsername(),signInRequest.getPassword())
         );
@@ -29,6 +48,36 @@ public class AuthenticationService {
 
         return jwtProvider.generateToken(userPrincipal);
     }
+
+    public TokenPair signInAndReturnTokens(SignInRequest signInRequest, String clientIp){
+        // rejected attempts never reach the user lookup or BCrypt
+        loginThrottle.acquire(signInRequest.getUsername(), clientIp);
+        Authentication authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(signInRequest.getUsername(),signInRequest.getPassword())
+        );
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+
+        if (opaqueRefreshTokens) {
+            return new TokenPair(jwtProvider.generateToken(userPrincipal), opaqueRefreshTokenService.issue(userPrincipal));
+        }
+        return jwtProvider.generateTokenPair(userPrincipal);
+    }
+
+    public TokenPair refresh(String refreshToken){
+        if (opaqueRefreshTokens) {
+            return opaqueRefreshTokenService.rotate(refreshToken);
+        }
+        return new TokenPair(jwtProvider.refreshToken(refreshToken), refreshToken);
+    }
+
+    public void logout(String refreshToken){
+        if (opaqueRefreshTokens) {
+            opaqueRefreshTokenService.revoke(refreshToken);
+        } else {
+            jwtProvider.blacklistToken(refreshToken);
+        }
+    }
+
     public UserPrincipal getUserPrincipal(String username) {
         return (UserPrincipal) userService.loadUserByUsername(username);
     }
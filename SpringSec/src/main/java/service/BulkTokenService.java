@@ -0,0 +1,115 @@
+package service;
+
+import dto.response.BulkTokenResponse;
+import model.repository.UserAuthView;
+import model.repository.UserRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import security.RoleAuthorities;
+import security.UserPrincipal;
+import security.jwt.JwtProvider;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Issues access tokens for many principals at once, without passwords. Users
+ * are loaded with one {@code IN} query per batch and their tokens signed on a
+ * pool sized to the cores, each handed to the caller as soon as it is signed.
+ */
+@Service
+public class BulkTokenService implements DisposableBean {
+
+    private final UserRepository userRepository;
+    private final JwtProvider jwtProvider;
+    private final RoleAuthorities roleAuthorities;
+    private final int queryBatchSize;
+    private final int maxUsernames;
+    private final ExecutorService signingPool;
+
+    public BulkTokenService(UserRepository userRepository, JwtProvider jwtProvider, RoleAuthorities roleAuthorities,
+                            @Value("${authentication.bulk-tokens.query-batch-size:1000}") int queryBatchSize,
+                            @Value("${authentication.bulk-tokens.max-usernames:10000}") int maxUsernames,
+                            @Value("${authentication.bulk-tokens.signing-threads:0}") int signingThreads) {
+        this.userRepository = userRepository;
+        this.jwtProvider = jwtProvider;
+        this.roleAuthorities = roleAuthorities;
+        this.queryBatchSize = queryBatchSize;
+        this.maxUsernames = maxUsernames;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.signingPool = Executors.newFixedThreadPool(
+                signingThreads > 0 ? signingThreads : Runtime.getRuntime().availableProcessors(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bulk-token-signing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Passes one response per distinct username to {@code sink}, on the calling
+     * thread and in the order the tokens finish signing. Unknown usernames get a
+     * response with {@code error = "not_found"}.
+     */
+    public void issue(Collection<String> usernames, Consumer<BulkTokenResponse> sink) {
+        checkLimit(usernames);
+        List<String> distinct = usernames.stream().filter(Objects::nonNull).distinct().toList();
+        for (int from = 0; from < distinct.size(); from += queryBatchSize) {
+            List<String> batch = distinct.subList(from, Math.min(from + queryBatchSize, distinct.size()));
+            Map<String, UserAuthView> users = new HashMap<>();
+            for (UserAuthView user : userRepository.findAuthViewsByUsernameIn(batch)) {
+                users.put(user.getUsername(), user);
+            }
+
+            CompletionService<BulkTokenResponse> signed = new ExecutorCompletionService<>(signingPool);
+            int pending = 0;
+            for (String username : batch) {
+                UserAuthView user = users.get(username);
+                if (user == null) {
+                    sink.accept(new BulkTokenResponse(username, null, "not_found"));
+                    continue;
+                }
+                UserPrincipal principal = new UserPrincipal(user.getId(), user.getUsername(), null,
+                        roleAuthorities.authoritiesOfRole(user.getRoleId()));
+                signed.submit(() -> new BulkTokenResponse(username, jwtProvider.generateToken(principal), null));
+                pending++;
+            }
+            for (; pending > 0; pending--) {
+                sink.accept(take(signed));
+            }
+        }
+    }
+
+    public void checkLimit(Collection<String> usernames) {
+        if (usernames.size() > maxUsernames) {
+            throw new IllegalArgumentException("At most " + maxUsernames + " usernames per request");
+        }
+    }
+
+    @Override
+    public void destroy() {
+        signingPool.shutdownNow();
+    }
+
+    private static BulkTokenResponse take(CompletionService<BulkTokenResponse> signed) {
+        try {
+            return signed.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Bulk token issuance interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Token signing failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import security.CustomUserDetailsService;
+import security.UserPrincipal;
+import security.jwt.JwtProvider;
+import security.jwt.RefreshTokenRecord;
+import security.jwt.RefreshTokenStore;
+import security.jwt.TokenDigest;
+import security.jwt.TokenPair;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque refresh tokens: random handles looked up by hash, rotated on every use.
+ * Presenting a handle that was already used revokes its whole family, since
+ * either the client or an attacker is holding a stolen copy. The handle keeps no
+ * roles: every rotation reloads the user, so the new access token carries the
+ * roles the user has now.
+ */
+@Service
+public class OpaqueRefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenStore refreshTokenStore;
+    private final JwtProvider jwtProvider;
+    private final CustomUserDetailsService userDetailsService;
+
+    public OpaqueRefreshTokenService(RefreshTokenStore refreshTokenStore, JwtProvider jwtProvider,
+                                     CustomUserDetailsService userDetailsService) {
+        this.refreshTokenStore = refreshTokenStore;
+        this.jwtProvider = jwtProvider;
+        this.userDetailsService = userDetailsService;
+    }
+
+    public String issue(UserPrincipal userPrincipal) {
+        return issue(userPrincipal.getId(), userPrincipal.getUsername(), UUID.randomUUID().toString());
+    }
+
+    public TokenPair rotate(String refreshToken) {
+        String tokenHash = TokenDigest.of(refreshToken);
+        RefreshTokenRecord record = refreshTokenStore.findByHash(tokenHash);
+        if (record == null || record.isExpired(Instant.now())) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+        if (record.isRevoked() || !refreshTokenStore.markUsed(tokenHash)) {
+            refreshTokenStore.revokeFamily(record.getFamilyId());
+            throw new RuntimeException("Refresh token reuse detected, token family revoked");
+        }
+        UserPrincipal userPrincipal = loadUser(record);
+        return new TokenPair(jwtProvider.generateToken(userPrincipal),
+                issue(record.getUserId(), record.getUsername(), record.getFamilyId()));
+    }
+
+    public void revoke(String refreshToken) {
+        RefreshTokenRecord record = refreshTokenStore.findByHash(TokenDigest.of(refreshToken));
+        if (record != null) {
+            refreshTokenStore.revokeFamily(record.getFamilyId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${authentication.refresh-token.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        refreshTokenStore.deleteExpired(Instant.now());
+    }
+
+    // a deleted user, or a new one under the same name, ends the family
+    private UserPrincipal loadUser(RefreshTokenRecord record) {
+        try {
+            return userDetailsService.loadCurrentUser(record.getUserId(), record.getUsername());
+        } catch (UsernameNotFoundException e) {
+            refreshTokenStore.revokeFamily(record.getFamilyId());
+            throw new RuntimeException("Invalid refresh token", e);
+        }
+    }
+
+    private String issue(int userId, String username, String familyId) {
+        byte[] handle = new byte[32];
+        RANDOM.nextBytes(handle);
+        String refreshToken = ENCODER.encodeToString(handle);
+        Instant expiresAt = Instant.now().plusMillis(jwtProvider.getJWT_REFRESH_EXPIRATION_IN_MS());
+        refreshTokenStore.save(new RefreshTokenRecord(TokenDigest.of(refreshToken), familyId, userId, username,
+                expiresAt, false, false));
+        return refreshToken;
+    }
+}
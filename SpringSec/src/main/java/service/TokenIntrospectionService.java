@@ -0,0 +1,65 @@
+package service;
+
+import dto.response.IntrospectionResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import security.jwt.JwtProvider;
+import security.jwt.TokenIntrospection;
+import security.jwt.VerifiedToken;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Token introspection for downstream services, so they see revocations made
+ * here instead of only checking signatures themselves. A gateway can send many
+ * tokens in one call; the answers come back in the same order.
+ */
+@Service
+public class TokenIntrospectionService {
+
+    private final JwtProvider jwtProvider;
+    private final int maxBatchSize;
+
+    public TokenIntrospectionService(JwtProvider jwtProvider,
+                                     @Value("${authentication.introspection.max-batch-size:1000}") int maxBatchSize) {
+        this.jwtProvider = jwtProvider;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public IntrospectionResponse introspect(String token) {
+        if (token == null || token.isBlank()) {
+            return new IntrospectionResponse(false);
+        }
+        TokenIntrospection introspection = jwtProvider.introspect(token);
+        // refresh tokens are never Bearer tokens; JwtProvider already reports them inactive
+        if (!introspection.isActive() || introspection.getToken().isRefresh()) {
+            return new IntrospectionResponse(false);
+        }
+        VerifiedToken verified = introspection.getToken();
+        IntrospectionResponse response = new IntrospectionResponse(true);
+        response.setSub(verified.getSubject());
+        response.setUsername(verified.getSubject());
+        response.setUserId(verified.getUserId());
+        response.setScope(introspection.getScope());
+        response.setExp(verified.getExpiresAtMs() / 1000);
+        response.setTokenType("Bearer");
+        return response;
+    }
+
+    public List<IntrospectionResponse> introspect(List<String> tokens) {
+        checkLimit(tokens);
+        List<IntrospectionResponse> responses = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            responses.add(introspect(token));
+        }
+        return responses;
+    }
+
+    public void checkLimit(Collection<String> tokens) {
+        if (tokens.size() > maxBatchSize) {
+            throw new IllegalArgumentException("At most " + maxBatchSize + " tokens per request");
+        }
+    }
+}
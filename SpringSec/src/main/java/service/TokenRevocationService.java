@@ -0,0 +1,93 @@
+package service;
+
+import model.entity.RevokedToken;
+import model.repository.RevokedTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import security.jwt.TokenRevocationStore;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the local {@link TokenRevocationStore} in step with the shared
+ * {@code revoked_tokens} table. Revocations are written through to the table
+ * and applied locally at once; other nodes pick them up on their next sync.
+ * A sync reads the rows revoked since the previous one began, less
+ * {@code sync-overlap-ms}: ids are handed out on insert, not on commit, so an id
+ * watermark would skip a row that commits after a higher one was read. The
+ * overlap also covers clock skew between nodes. Rows already known are skipped.
+ */
+@Service
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenRevocationStore revocationStore;
+    private final int batchSize;
+    private final long overlapMs;
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private volatile Instant lastSyncedAt = Instant.EPOCH;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  TokenRevocationStore revocationStore,
+                                  @Value("${authentication.jwt.revocation.sync-batch-size:500}") int batchSize,
+                                  @Value("${authentication.jwt.revocation.sync-overlap-ms:60000}") long overlapMs) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.revocationStore = revocationStore;
+        this.batchSize = batchSize;
+        this.overlapMs = overlapMs;
+    }
+
+    public void revoke(String digest, long expiresAtMs) {
+        revocationStore.revoke(digest, expiresAtMs);
+        try {
+            revokedTokenRepository.save(new RevokedToken(digest, Instant.ofEpochMilli(expiresAtMs), Instant.now()));
+        } catch (DataIntegrityViolationException e) {
+            // already revoked by this or another node
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${authentication.jwt.revocation.sync-interval-ms:5000}")
+    public void sync() {
+        // JDBC runs while the lock is held; a ReentrantLock keeps a virtual thread from pinning its carrier
+        syncLock.lock();
+        try {
+            Instant startedAt = Instant.now();
+            Instant since = lastSyncedAt.equals(Instant.EPOCH) ? Instant.EPOCH : lastSyncedAt.minusMillis(overlapMs);
+            // the id only pages through this window, starting below any id a row can have
+            long afterId = Long.MIN_VALUE;
+            List<RevokedToken> batch;
+            do {
+                batch = revokedTokenRepository.findByRevokedAtGreaterThanEqualAndIdGreaterThanAndExpiresAtAfterOrderByIdAsc(
+                        since, afterId, startedAt, PageRequest.of(0, batchSize));
+                for (RevokedToken revokedToken : batch) {
+                    if (!revocationStore.isRevoked(revokedToken.getTokenDigest())) {
+                        revocationStore.revoke(revokedToken.getTokenDigest(), revokedToken.getExpiresAt().toEpochMilli());
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == batchSize);
+            lastSyncedAt = startedAt;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${authentication.jwt.revocation.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        revokedTokenRepository.deleteByExpiresAtBefore(Instant.now());
+    }
+
+    public Instant getLastSyncedAt() {
+        return lastSyncedAt;
+    }
+}
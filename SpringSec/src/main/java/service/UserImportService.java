@@ -0,0 +1,294 @@
+package service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dto.response.UserImportResponse;
+import model.entity.Role;
+import model.repository.RoleRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import security.BoundedBCryptPasswordEncoder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams users from CSV ({@code username,password[,role]} with a header line)
+ * or NDJSON ({@code {"username", "password" | "passwordHash", "role"}}) into
+ * the users table. Each chunk is hashed on all cores, given ids from
+ * {@code users_seq} and written with one JDBC batch in its own transaction,
+ * so a bad chunk is rolled back alone and the input is never held in memory.
+ */
+@Service
+public class UserImportService implements DisposableBean {
+
+    private static final String INSERT_USER = "INSERT INTO users (id, username, password, role_id) VALUES (?, ?, ?, ?)";
+    private static final String NEXT_USER_ID = "SELECT nextval('users_seq')";
+    // INCREMENT BY of users_seq, the same pooled blocks Hibernate hands out for User
+    private static final int ID_BLOCK = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RoleRepository roleRepository;
+    private final ObjectMapper objectMapper;
+    private final PasswordEncoder hashingEncoder;
+    private final ExecutorService hashingPool;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public UserImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             RoleRepository roleRepository, ObjectMapper objectMapper, PasswordEncoder passwordEncoder,
+                             @Value("${authentication.user-import.chunk-size:1000}") int chunkSize,
+                             @Value("${authentication.user-import.hashing-threads:0}") int hashingThreads,
+                             @Value("${authentication.user-import.max-errors:100}") int maxErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.roleRepository = roleRepository;
+        this.objectMapper = objectMapper;
+        // same cost as logins, but not through the login pool, whose bounded queue would reject the import
+        this.hashingEncoder = passwordEncoder instanceof BoundedBCryptPasswordEncoder bounded
+                ? new BCryptPasswordEncoder(bounded.getStrength())
+                : passwordEncoder;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.hashingPool = Executors.newFixedThreadPool(
+                hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-import-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public UserImportResponse importCsv(InputStream input) throws IOException {
+        return importRows(input, true);
+    }
+
+    public UserImportResponse importNdjson(InputStream input) throws IOException {
+        return importRows(input, false);
+    }
+
+    @Override
+    public void destroy() {
+        hashingPool.shutdownNow();
+    }
+
+    private UserImportResponse importRows(InputStream input, boolean csv) throws IOException {
+        Map<String, Integer> roleIds = loadRoleIds();
+        Progress progress = new Progress();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        String line;
+        int lineNumber = 0;
+        if (csv) {
+            reader.readLine();
+            lineNumber++;
+        }
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            Row row = csv ? parseCsv(line, lineNumber) : parseJson(line, lineNumber);
+            if (row == null) {
+                progress.reject(lineNumber, "unreadable line");
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                writeChunk(chunk, roleIds, progress);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, roleIds, progress);
+        }
+        return new UserImportResponse(progress.imported, progress.rejected, progress.errors);
+    }
+
+    private void writeChunk(List<Row> chunk, Map<String, Integer> roleIds, Progress progress) {
+        List<Row> valid = new ArrayList<>(chunk.size());
+        List<CompletableFuture<String>> hashes = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            String error = validate(row, roleIds);
+            if (error != null) {
+                progress.reject(row.line, error);
+                continue;
+            }
+            valid.add(row);
+            // hashes exported from another BCrypt system are stored as they are
+            hashes.add(row.passwordHash != null
+                    ? CompletableFuture.completedFuture(row.passwordHash)
+                    : CompletableFuture.supplyAsync(() -> hashingEncoder.encode(row.password), hashingPool));
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(valid.size());
+        long[] ids = allocateIds(valid.size());
+        for (int i = 0; i < valid.size(); i++) {
+            Row row = valid.get(i);
+            batch.add(new Object[]{ids[i], row.username, join(hashes.get(i)),
+                    row.role == null ? null : roleIds.get(roleKey(row.role))});
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_USER, batch));
+            progress.imported += valid.size();
+        } catch (DataAccessException e) {
+            // e.g. a username that already exists: the whole chunk is rolled back
+            progress.reject(valid.get(0).line, "chunk of " + valid.size() + " rows rolled back: "
+                    + e.getMostSpecificCause().getMessage());
+            progress.rejected += valid.size() - 1;
+        }
+    }
+
+    private String validate(Row row, Map<String, Integer> roleIds) {
+        if (row.username == null || row.username.isBlank() || row.username.length() > 50) {
+            return "username missing or longer than 50 characters";
+        }
+        if (row.passwordHash == null && (row.password == null || row.password.isEmpty())) {
+            return "password missing";
+        }
+        if (row.passwordHash != null && !row.passwordHash.startsWith("$2")) {
+            return "passwordHash is not a BCrypt hash";
+        }
+        if (row.role != null && !roleIds.containsKey(roleKey(row.role))) {
+            return "unknown role " + row.role;
+        }
+        return null;
+    }
+
+    private long[] allocateIds(int count) {
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            long value = jdbcTemplate.queryForObject(NEXT_USER_ID, Long.class);
+            // the sequence's first value is a block of its own, as in Hibernate's pooled optimizer
+            long low = value == 1 ? 1 : value - ID_BLOCK + 1;
+            for (long id = low; id <= value && filled < count; id++) {
+                ids[filled++] = id;
+            }
+        }
+        return ids;
+    }
+
+    private Map<String, Integer> loadRoleIds() {
+        Map<String, Integer> roleIds = new HashMap<>();
+        for (Role role : roleRepository.findAll()) {
+            roleIds.put(roleKey(role.getName()), role.getId());
+        }
+        return roleIds;
+    }
+
+    private static String roleKey(String role) {
+        String name = role.trim().toUpperCase(Locale.ROOT);
+        return name.startsWith("ROLE_") ? name.substring("ROLE_".length()) : name;
+    }
+
+    private static String join(CompletableFuture<String> hash) {
+        try {
+            return hash.join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Password hashing failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private Row parseJson(String line, int lineNumber) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            return new Row(lineNumber, text(node, "username"), text(node, "password"),
+                    text(node, "passwordHash"), text(node, "role"));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    // RFC 4180 fields: commas and doubled quotes inside quoted values
+    private static Row parseCsv(String line, int lineNumber) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        if (quoted || fields.size() < 2 || fields.size() > 3) {
+            return null;
+        }
+        String role = fields.size() == 3 && !fields.get(2).isBlank() ? fields.get(2) : null;
+        return new Row(lineNumber, fields.get(0), fields.get(1), null, role);
+    }
+
+    private static final class Row {
+        private final int line;
+        private final String username;
+        private final String password;
+        private final String passwordHash;
+        private final String role;
+
+        private Row(int line, String username, String password, String passwordHash, String role) {
+            this.line = line;
+            this.username = username;
+            this.password = password;
+            this.passwordHash = passwordHash;
+            this.role = role;
+        }
+    }
+
+    private final class Progress {
+        private long imported;
+        private long rejected;
+        private final List<String> errors = new ArrayList<>();
+
+        private void reject(int line, String reason) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add("line " + line + ": " + reason);
+            }
+        }
+    }
+}
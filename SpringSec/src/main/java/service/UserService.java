@@ -1,11 +1,15 @@
 package service;
 
 import model.entity.User;
+import model.repository.UserAuthView;
 import model.repository.UserRepository;
+import model.routing.ReadRouting;
+import model.routing.RecentWrites;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import security.UserPrincipal;
 
 import java.util.Optional;
@@ -14,14 +18,41 @@ import java.util.Optional;
 public class UserService implements UserDetailsService {
 
     private UserRepository userRepository;
-    public UserService(UserRepository userRepository) {
+    private final RecentWrites recentWrites;
+    public UserService(UserRepository userRepository, RecentWrites recentWrites) {
         this.userRepository = userRepository;
+        this.recentWrites = recentWrites;
     }
     public User findByUsername(String username) {
         return userRepository.findByUsername(username)
                 .orElse(null);
     }
 
+    /**
+     * Login lookup; a replica serves it unless this node changed the user within
+     * the replica lag window. A user a replica does not know yet, e.g. just created
+     * on another node, is looked up again on the primary.
+     */
+    public UserAuthView findAuthViewByUsername(String username) {
+        if (recentWrites.isRecent(username)) {
+            return ReadRouting.onPrimary(() -> userRepository.findAuthViewByUsername(username))
+                    .orElse(null);
+        }
+        Optional<UserAuthView> user = userRepository.findAuthViewByUsername(username);
+        if (user.isEmpty() && recentWrites.isEnabled()) {
+            user = ReadRouting.onPrimary(() -> userRepository.findAuthViewByUsername(username));
+        }
+        return user.orElse(null);
+    }
+
+    @Transactional
+    public User updatePassword(String username, String encodedPassword) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        user.setPassword(encodedPassword);
+        return userRepository.save(user);
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
        Optional<User> user = userRepository.findByUsername(username);
@@ -2,10 +2,16 @@ package test.example.SpringSec;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@ComponentScan(basePackages = {"security", "security.jwt","service","model"})
+@EnableScheduling
+@EntityScan(basePackages = "model.entity")
+@EnableJpaRepositories(basePackages = "model.repository")
+@ComponentScan(basePackages = {"security", "security.jwt","service","model","controller"})
 public class SpringSecApplication {
 
 	public static void main(String[] args) {
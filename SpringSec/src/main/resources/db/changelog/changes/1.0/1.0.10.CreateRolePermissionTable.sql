@@ -0,0 +1,6 @@
+-- permissions granted by each role, compiled into bitsets by AuthorizationEngine
+CREATE TABLE role_permissions (
+                       role_id BIGINT NOT NULL REFERENCES roles (id) ON DELETE CASCADE,
+                       permission VARCHAR(100) NOT NULL,
+                       PRIMARY KEY (role_id, permission)
+);
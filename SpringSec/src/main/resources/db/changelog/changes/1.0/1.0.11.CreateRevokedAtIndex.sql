@@ -0,0 +1,2 @@
+-- TokenRevocationService re-reads a window of recent revocations on every sync
+CREATE INDEX idx_revoked_tokens_revoked_at ON revoked_tokens (revoked_at);
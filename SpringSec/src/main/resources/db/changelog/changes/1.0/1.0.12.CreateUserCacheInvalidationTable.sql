@@ -0,0 +1,7 @@
+-- user details cache evictions for the other nodes, see UserDetailsCacheSync; a NULL username means all
+CREATE TABLE user_cache_invalidations (
+                       id BIGSERIAL PRIMARY KEY,
+                       username VARCHAR(255),
+                       invalidated_at TIMESTAMP NOT NULL
+);
+CREATE INDEX idx_user_cache_invalidations_invalidated_at ON user_cache_invalidations (invalidated_at);
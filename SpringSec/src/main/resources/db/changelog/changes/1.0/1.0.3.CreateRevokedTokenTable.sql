@@ -0,0 +1,10 @@
+
+
+CREATE TABLE revoked_tokens (
+                       id BIGSERIAL PRIMARY KEY,
+                       token_digest VARCHAR(64) NOT NULL UNIQUE,
+                       expires_at TIMESTAMP NOT NULL,
+                       revoked_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
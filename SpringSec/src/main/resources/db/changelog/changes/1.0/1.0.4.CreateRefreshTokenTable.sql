@@ -0,0 +1,16 @@
+
+
+CREATE TABLE refresh_tokens (
+                       id BIGSERIAL PRIMARY KEY,
+                       token_hash VARCHAR(64) NOT NULL UNIQUE,
+                       family_id VARCHAR(64) NOT NULL,
+                       user_id BIGINT NOT NULL,
+                       username VARCHAR(50) NOT NULL,
+                       expires_at TIMESTAMP NOT NULL,
+                       used BOOLEAN NOT NULL DEFAULT FALSE,
+                       revoked BOOLEAN NOT NULL DEFAULT FALSE,
+                       FOREIGN KEY (user_id) REFERENCES users(id)
+);
+
+CREATE INDEX idx_refresh_tokens_family_id ON refresh_tokens (family_id);
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
@@ -0,0 +1,2 @@
+-- INCREMENT BY must match allocationSize on User.id and ID_BLOCK in UserImportService
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,2 @@
+-- users created through the BIGSERIAL default keep their ids, new ones start above them
+SELECT setval('users_seq', GREATEST((SELECT MAX(id) FROM users), 1));
@@ -0,0 +1,10 @@
+-- written in batches by JdbcAuditSink when authentication.audit.sink is jdbc
+CREATE TABLE auth_audit (
+                       id BIGSERIAL PRIMARY KEY,
+                       occurred_at TIMESTAMP NOT NULL,
+                       event_type VARCHAR(32) NOT NULL,
+                       subject VARCHAR(255),
+                       client_ip VARCHAR(64),
+                       detail VARCHAR(2048)
+);
+CREATE INDEX ix_auth_audit_occurred_at ON auth_audit (occurred_at);
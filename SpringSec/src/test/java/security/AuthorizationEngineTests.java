@@ -0,0 +1,131 @@
+package security;
+
+import model.entity.Role;
+import model.repository.RolePermissionView;
+import model.repository.RoleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.core.GrantedAuthorityDefaults;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class AuthorizationEngineTests {
+
+	private final AuthorizationEngine engine = new AuthorizationEngine(mock(RoleRepository.class),
+			new StaticListableBeanFactory().getBeanProvider(GrantedAuthorityDefaults.class));
+
+	@Test
+	void decidesOnRoleAndPermissionBits() {
+		engine.apply(List.of(role(1, "ADMIN"), role(2, "INTROSPECT")),
+				List.of(grant(1, "user:import"), grant(1, "token:introspect"), grant(2, "token:introspect")));
+		Authentication admin = token(1L << 1);
+		Authentication introspector = token(1L << 2);
+
+		assertThat(engine.check("hasRole('ADMIN')", admin)).isTrue();
+		assertThat(engine.check("hasRole('ADMIN')", introspector)).isFalse();
+		assertThat(engine.check("hasAnyRole('ADMIN', 'INTROSPECT')", introspector)).isTrue();
+		assertThat(engine.check("hasAuthority('token:introspect')", introspector)).isTrue();
+		assertThat(engine.check("hasAuthority('user:import')", introspector)).isFalse();
+		assertThat(engine.check("hasRole('INTROSPECT') or hasAuthority('user:import')", admin)).isTrue();
+		assertThat(engine.check("hasRole('INTROSPECT') and hasAuthority('token:introspect')", admin)).isFalse();
+
+		// principals without a mask are matched by their authorities
+		Authentication byName = new UsernamePasswordAuthenticationToken("admin", null,
+				List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+		assertThat(engine.check("hasAuthority('user:import')", byName)).isTrue();
+	}
+
+	@Test
+	void leavesUnknownNamesAndOtherExpressionsToSpel() {
+		engine.apply(List.of(role(1, "ADMIN")), List.of());
+
+		assertThat(engine.check("hasRole('AUDITOR')", token(1L << 1))).isNull();
+		assertThat(engine.check("hasAuthority('USER')", token(1L << 1))).isNull();
+		assertThat(engine.check("isAuthenticated()", token(1L << 1))).isNull();
+		assertThat(engine.check("hasRole('ADMIN') or hasRole('ADMIN') and isAnonymous()", token(1L << 1))).isNull();
+	}
+
+	@Test
+	void newSnapshotReplacesCompiledDecisions() {
+		engine.apply(List.of(role(1, "ADMIN")), List.of(grant(1, "user:import")));
+		assertThat(engine.check("hasAuthority('user:import')", token(1L << 1))).isTrue();
+
+		engine.apply(List.of(role(1, "ADMIN"), role(3, "IMPORTER")), List.of(grant(3, "user:import")));
+		assertThat(engine.check("hasAuthority('user:import')", token(1L << 1))).isFalse();
+		assertThat(engine.check("hasAuthority('user:import')", token(1L << 3))).isTrue();
+	}
+
+	@Test
+	void spelSeesThePermissionsTheEngineGrants() {
+		engine.apply(List.of(role(1, "ADMIN")), List.of(grant(1, "user:import")));
+
+		assertThat(engine.withPermissions(token(1L << 1)).getAuthorities())
+				.extracting(GrantedAuthority::getAuthority)
+				.containsExactly("user:import");
+		assertThat(engine.withPermissions(token(1L << 2)).getAuthorities()).isEmpty();
+
+		// a permission held directly counts here as it does in SpEL
+		Authentication direct = new UsernamePasswordAuthenticationToken("importer", null,
+				List.of(new SimpleGrantedAuthority("user:import")));
+		assertThat(engine.check("hasAuthority('user:import')", direct)).isTrue();
+	}
+
+	@Test
+	void failsOnMoreThan64Permissions() {
+		List<RolePermissionView> grants = new ArrayList<>();
+		for (int i = 0; i <= AuthorizationEngine.MAX_PERMISSIONS; i++) {
+			grants.add(grant(1, "permission:" + i));
+		}
+
+		assertThatThrownBy(() -> engine.apply(List.of(role(1, "ADMIN")), grants))
+				.hasMessageContaining("More than 64 permissions");
+	}
+
+	@Test
+	void usesTheConfiguredRolePrefix() {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("grantedAuthorityDefaults", new GrantedAuthorityDefaults(""));
+		AuthorizationEngine unprefixed = new AuthorizationEngine(mock(RoleRepository.class),
+				beanFactory.getBeanProvider(GrantedAuthorityDefaults.class));
+		unprefixed.apply(List.of(role(1, "ADMIN")), List.of());
+
+		Authentication byName = new UsernamePasswordAuthenticationToken("admin", null,
+				List.of(new SimpleGrantedAuthority("ADMIN")));
+		assertThat(unprefixed.check("hasRole('ADMIN')", byName)).isTrue();
+	}
+
+	private static Authentication token(long roleMask) {
+		UserPrincipal principal = new UserPrincipal(42, "user", null, List.of(), roleMask);
+		return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+	}
+
+	private static Role role(int id, String name) {
+		Role role = new Role();
+		role.setId(id);
+		role.setName(name);
+		return role;
+	}
+
+	private static RolePermissionView grant(long roleId, String permission) {
+		return new RolePermissionView() {
+			@Override
+			public Long getRoleId() {
+				return roleId;
+			}
+
+			@Override
+			public String getPermission() {
+				return permission;
+			}
+		};
+	}
+}
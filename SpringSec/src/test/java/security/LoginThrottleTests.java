@@ -0,0 +1,30 @@
+package security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+
+class LoginThrottleTests {
+
+	@Test
+	void throwawayUsernamesDoNotResetAnotherUsersBucket() {
+		LoginThrottle throttle = new LoginThrottle(true, 100, 2, 1, 1000, 1000, new AuthMetrics(new SimpleMeterRegistry()));
+		throttle.acquire("victim", null);
+		throttle.acquire("victim", null);
+		assertThatThrownBy(() -> throttle.acquire("victim", null)).isInstanceOf(LoginThrottledException.class);
+
+		// fills the map with live buckets, then keeps going into the overflow bucket
+		for (int i = 0; i < 1000; i++) {
+			try {
+				throttle.acquire("throwaway-" + i, null);
+			} catch (LoginThrottledException e) {
+				// the shared overflow bucket is used up as well
+			}
+		}
+
+		assertThatThrownBy(() -> throttle.acquire("victim", null)).isInstanceOf(LoginThrottledException.class);
+		assertThatNoException().isThrownBy(() -> throttle.acquire("throwaway-0", null));
+	}
+}
@@ -0,0 +1,70 @@
+package security.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class AuditLogTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void eventsSurviveRotationAndReplayInOrder() throws Exception {
+		AuditLog auditLog = new AuditLog(true, "file", 1024, 64, 1000, 1, directory.toString(),
+				SegmentFileAuditSink.MIN_SEGMENT_SIZE, 0, false, mock(ObjectProvider.class));
+		auditLog.start();
+		int events = 5000;
+		for (int i = 0; i < events; i++) {
+			auditLog.record(AuditEventType.LOGIN_SUCCESS, "user-" + i, "10.0.0." + (i % 256), null);
+		}
+		auditLog.destroy();
+
+		assertThat(auditLog.getWrittenCount()).isEqualTo(events);
+		assertThat(AuditSegmentReader.segments(directory).size()).isGreaterThan(1);
+		List<AuditEntry> entries = new ArrayList<>();
+		assertThat(AuditSegmentReader.replay(directory, entries::add)).isEqualTo(events);
+		for (int i = 0; i < events; i++) {
+			assertThat(entries.get(i).getSubject()).isEqualTo("user-" + i);
+			assertThat(entries.get(i).getType()).isEqualTo(AuditEventType.LOGIN_SUCCESS);
+			assertThat(entries.get(i).getDetail()).isNull();
+		}
+	}
+
+	@Test
+	void fullRingBufferRejectsUntilDrained() {
+		AuditRingBuffer ringBuffer = new AuditRingBuffer(4);
+		for (int i = 0; i < 4; i++) {
+			assertThat(ringBuffer.tryPublish(AuditEventType.LOGOUT, i, "user", null, null)).isTrue();
+		}
+		assertThat(ringBuffer.tryPublish(AuditEventType.LOGOUT, 4, "user", null, null)).isFalse();
+
+		List<Long> timestamps = new ArrayList<>();
+		AuditSink sink = new AuditSink() {
+			@Override
+			public void append(AuditRecord record) {
+				timestamps.add(record.timestampMs);
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		assertThat(ringBuffer.drain(16, sink, new LongAdder())).isEqualTo(4);
+		assertThat(timestamps).containsExactly(0L, 1L, 2L, 3L);
+		assertThat(ringBuffer.tryPublish(AuditEventType.LOGOUT, 4, "user", null, null)).isTrue();
+	}
+}
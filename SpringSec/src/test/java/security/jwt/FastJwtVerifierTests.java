@@ -0,0 +1,106 @@
+package security.jwt;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FastJwtVerifierTests {
+
+	private static SigningKeyRing signingKeyRing;
+	private static FastJwtVerifier verifier;
+
+	@BeforeAll
+	static void setUp() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		KeyPair keyPair = generator.generateKeyPair();
+		Base64.Encoder encoder = Base64.getEncoder();
+		signingKeyRing = new SigningKeyRing(new JwtKeyProperties(),
+				encoder.encodeToString(keyPair.getPrivate().getEncoded()),
+				encoder.encodeToString(keyPair.getPublic().getEncoded()));
+		verifier = new FastJwtVerifier(signingKeyRing);
+	}
+
+	@Test
+	void readsClaimsOfOwnTokens() {
+		long expiresAt = (System.currentTimeMillis() / 1000 + 900) * 1000;
+		String token = sign(expiresAt);
+
+		FastJwtVerifier.Claims claims = new FastJwtVerifier.Claims();
+		assertThat(verifier.verify(token, System.currentTimeMillis(), claims)).isEqualTo(FastJwtVerifier.Result.VALID);
+		assertThat(claims.subject).isEqualTo("fast-user");
+		assertThat(claims.userId).isEqualTo(42);
+		assertThat(claims.roleMask).isEqualTo(6);
+		assertThat(claims.expiresAtMs).isEqualTo(expiresAt);
+	}
+
+	@Test
+	void rejectsTamperedAndExpiredTokens() {
+		String token = sign(System.currentTimeMillis() + 900000);
+		String[] parts = token.split("\\.");
+		String otherPayload = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString("{\"sub\":\"admin\",\"userId\":1,\"rm\":4,\"exp\":9999999999}".getBytes());
+		String tampered = parts[0] + "." + otherPayload + "." + parts[2];
+
+		FastJwtVerifier.Claims claims = new FastJwtVerifier.Claims();
+		assertThat(verifier.verify(tampered, System.currentTimeMillis(), claims)).isEqualTo(FastJwtVerifier.Result.BAD_SIGNATURE);
+		assertThat(verifier.verify(sign(System.currentTimeMillis() - 1000), System.currentTimeMillis(), claims))
+				.isEqualTo(FastJwtVerifier.Result.EXPIRED);
+		assertThat(verifier.verify("not-a-token", System.currentTimeMillis(), claims)).isEqualTo(FastJwtVerifier.Result.MALFORMED);
+	}
+
+	@Test
+	void verifiesEd25519Tokens() throws Exception {
+		KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+		Base64.Encoder encoder = Base64.getEncoder();
+		JwtKeyProperties.Key key = new JwtKeyProperties.Key();
+		key.setKid("ed");
+		key.setAlgorithm("EdDSA");
+		key.setPrivateKey(encoder.encodeToString(keyPair.getPrivate().getEncoded()));
+		key.setPublicKey(encoder.encodeToString(keyPair.getPublic().getEncoded()));
+		JwtKeyProperties properties = new JwtKeyProperties();
+		properties.getKeys().add(key);
+		SigningKeyRing edRing = new SigningKeyRing(properties, "", "");
+		FastJwtVerifier edVerifier = new FastJwtVerifier(edRing);
+
+		String token = EdDsaSigner.sign(Jwts.builder()
+				.claim("rm", 6L)
+				.setSubject("fast-user")
+				.claim("userId", 42)
+				.setExpiration(new Date(System.currentTimeMillis() + 900000))
+				.compact(), edRing.getSigningKey());
+		FastJwtVerifier.Claims claims = new FastJwtVerifier.Claims();
+		assertThat(edVerifier.verify(token, System.currentTimeMillis(), claims)).isEqualTo(FastJwtVerifier.Result.VALID);
+		assertThat(claims.subject).isEqualTo("fast-user");
+		assertThat(claims.roleMask).isEqualTo(6);
+
+		String[] parts = token.split("\\.");
+		String otherPayload = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString("{\"sub\":\"admin\",\"userId\":1,\"rm\":4,\"exp\":9999999999}".getBytes());
+		assertThat(edVerifier.verify(parts[0] + "." + otherPayload + "." + parts[2], System.currentTimeMillis(), claims))
+				.isEqualTo(FastJwtVerifier.Result.BAD_SIGNATURE);
+		// an RS256 key must not accept it either
+		assertThat(verifier.verify(token, System.currentTimeMillis(), claims)).isNotEqualTo(FastJwtVerifier.Result.VALID);
+		assertThat(edRing.getJwks()).contains("\"kty\":\"OKP\"", "\"crv\":\"Ed25519\"", "\"alg\":\"EdDSA\"");
+	}
+
+	private static String sign(long expiresAt) {
+		SigningKey signingKey = signingKeyRing.getSigningKey();
+		return Jwts.builder()
+				.claim("rm", 6L)
+				.setSubject("fast-user")
+				.claim("userId", 42)
+				.setExpiration(new Date(expiresAt))
+				.setHeaderParam(JwsHeader.KEY_ID, signingKey.getKid())
+				.signWith(signingKey.getPrivateKey(), signingKey.getAlgorithm())
+				.compact();
+	}
+}
@@ -0,0 +1,94 @@
+package security.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import model.entity.Role;
+import model.repository.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.config.core.GrantedAuthorityDefaults;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+import security.AuthMetrics;
+import security.CustomUserDetailsService;
+import security.RoleAuthorities;
+import security.UserPrincipal;
+import service.TokenRevocationService;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+class JwtProviderTests {
+
+	private final RoleAuthorities roleAuthorities = new RoleAuthorities(mock(RoleRepository.class),
+			new StaticListableBeanFactory().getBeanProvider(GrantedAuthorityDefaults.class));
+	private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class, CALLS_REAL_METHODS);
+	private JwtProvider jwtProvider;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		roleAuthorities.apply(List.of(role(1, "ADMIN"), role(2, "USER")));
+
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		KeyPair keyPair = generator.generateKeyPair();
+		Base64.Encoder encoder = Base64.getEncoder();
+		SigningKeyRing signingKeyRing = new SigningKeyRing(new JwtKeyProperties(),
+				encoder.encodeToString(keyPair.getPrivate().getEncoded()),
+				encoder.encodeToString(keyPair.getPublic().getEncoded()));
+		jwtProvider = new JwtProvider(signingKeyRing, new VerifiedTokenCache(100), new IntrospectionCache(100, 5000),
+				new TokenRevocationStore(60000, 1000), mock(TokenRevocationService.class),
+				new AuthMetrics(new SimpleMeterRegistry()), roleAuthorities, userDetailsService);
+		ReflectionTestUtils.setField(jwtProvider, "JWT_EXPIRATION_IN_MS", 900000L);
+		ReflectionTestUtils.setField(jwtProvider, "JWT_REFRESH_EXPIRATION_IN_MS", 3600000L);
+	}
+
+	@Test
+	void refreshTokenIsNoBearerToken() {
+		TokenPair pair = jwtProvider.generateTokenPair(admin());
+
+		assertThat(jwtProvider.verifyAuthorization("Bearer " + pair.getRefreshToken())).isNull();
+		assertThat(jwtProvider.introspect(pair.getRefreshToken()).isActive()).isFalse();
+		assertThat(jwtProvider.verify(pair.getRefreshToken()).getAuthorities()).isEmpty();
+		assertThat(jwtProvider.verifyAuthorization("Bearer " + pair.getAccessToken())).isNotNull();
+		assertThatThrownBy(() -> jwtProvider.refreshToken(pair.getAccessToken()))
+				.hasMessageContaining("not a refresh token");
+	}
+
+	@Test
+	void refreshTakesTheRolesTheUserHasNow() {
+		String refreshToken = jwtProvider.generateRefreshToken(admin());
+		doReturn(new UserPrincipal(7, "admin", "hash", roleAuthorities.authoritiesOfRole(2)))
+				.when(userDetailsService).loadUserByUsername("admin");
+
+		assertThat(jwtProvider.verify(jwtProvider.refreshToken(refreshToken)).getAuthorities())
+				.extracting(GrantedAuthority::getAuthority)
+				.containsExactly("ROLE_USER");
+
+		doThrow(new UsernameNotFoundException("User not found: admin"))
+				.when(userDetailsService).loadUserByUsername("admin");
+		assertThatThrownBy(() -> jwtProvider.refreshToken(refreshToken))
+				.hasMessageContaining("Invalid JWT token for refresh");
+	}
+
+	private UserPrincipal admin() {
+		return new UserPrincipal(7, "admin", "hash", roleAuthorities.authoritiesOfRole(1));
+	}
+
+	private static Role role(int id, String name) {
+		Role role = new Role();
+		role.setId(id);
+		role.setName(name);
+		return role;
+	}
+}
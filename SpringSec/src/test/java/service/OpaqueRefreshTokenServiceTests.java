@@ -0,0 +1,88 @@
+package service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import model.entity.Role;
+import model.repository.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.config.core.GrantedAuthorityDefaults;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+import security.AuthMetrics;
+import security.CustomUserDetailsService;
+import security.RoleAuthorities;
+import security.UserPrincipal;
+import security.jwt.InMemoryRefreshTokenStore;
+import security.jwt.IntrospectionCache;
+import security.jwt.JwtKeyProperties;
+import security.jwt.JwtProvider;
+import security.jwt.SigningKeyRing;
+import security.jwt.TokenPair;
+import security.jwt.TokenRevocationStore;
+import security.jwt.VerifiedTokenCache;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+class OpaqueRefreshTokenServiceTests {
+
+	private final RoleAuthorities roleAuthorities = new RoleAuthorities(mock(RoleRepository.class),
+			new StaticListableBeanFactory().getBeanProvider(GrantedAuthorityDefaults.class));
+	// loadCurrentUser runs for real on top of the stubbed lookup
+	private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class, CALLS_REAL_METHODS);
+	private JwtProvider jwtProvider;
+	private OpaqueRefreshTokenService service;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Role admin = new Role();
+		admin.setId(1);
+		admin.setName("ADMIN");
+		roleAuthorities.apply(List.of(admin));
+
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		KeyPair keyPair = generator.generateKeyPair();
+		Base64.Encoder encoder = Base64.getEncoder();
+		SigningKeyRing signingKeyRing = new SigningKeyRing(new JwtKeyProperties(),
+				encoder.encodeToString(keyPair.getPrivate().getEncoded()),
+				encoder.encodeToString(keyPair.getPublic().getEncoded()));
+		jwtProvider = new JwtProvider(signingKeyRing, new VerifiedTokenCache(100), new IntrospectionCache(100, 5000),
+				new TokenRevocationStore(60000, 1000), mock(TokenRevocationService.class),
+				new AuthMetrics(new SimpleMeterRegistry()), roleAuthorities, userDetailsService);
+		ReflectionTestUtils.setField(jwtProvider, "JWT_EXPIRATION_IN_MS", 900000L);
+		ReflectionTestUtils.setField(jwtProvider, "JWT_REFRESH_EXPIRATION_IN_MS", 3600000L);
+		service = new OpaqueRefreshTokenService(new InMemoryRefreshTokenStore(), jwtProvider, userDetailsService);
+	}
+
+	@Test
+	void refreshKeepsTheRolesOfAnAdmin() {
+		UserPrincipal admin = new UserPrincipal(7, "admin", "hash", roleAuthorities.authoritiesOfRole(1));
+		doReturn(admin).when(userDetailsService).loadUserByUsername("admin");
+
+		TokenPair pair = service.rotate(service.issue(admin));
+
+		assertThat(jwtProvider.verify(pair.getAccessToken()).getAuthorities())
+				.extracting(GrantedAuthority::getAuthority)
+				.containsExactly("ROLE_ADMIN");
+	}
+
+	@Test
+	void refreshFailsForAUserRecreatedUnderTheSameName() {
+		UserPrincipal admin = new UserPrincipal(7, "admin", "hash", roleAuthorities.authoritiesOfRole(1));
+		String refreshToken = service.issue(admin);
+		doReturn(new UserPrincipal(8, "admin", "hash", roleAuthorities.authoritiesOfRole(1)))
+				.when(userDetailsService).loadUserByUsername("admin");
+
+		assertThatThrownBy(() -> service.rotate(refreshToken)).hasMessage("Invalid refresh token");
+	}
+}
@@ -0,0 +1,75 @@
+package service;
+
+import dto.response.IntrospectionResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import model.entity.Role;
+import model.repository.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.config.core.GrantedAuthorityDefaults;
+import org.springframework.test.util.ReflectionTestUtils;
+import security.AuthMetrics;
+import security.CustomUserDetailsService;
+import security.RoleAuthorities;
+import security.UserPrincipal;
+import security.jwt.IntrospectionCache;
+import security.jwt.JwtKeyProperties;
+import security.jwt.JwtProvider;
+import security.jwt.SigningKeyRing;
+import security.jwt.TokenPair;
+import security.jwt.TokenRevocationStore;
+import security.jwt.VerifiedTokenCache;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TokenIntrospectionServiceTests {
+
+	private final RoleAuthorities roleAuthorities = new RoleAuthorities(mock(RoleRepository.class),
+			new StaticListableBeanFactory().getBeanProvider(GrantedAuthorityDefaults.class));
+	private JwtProvider jwtProvider;
+	private TokenIntrospectionService service;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Role admin = new Role();
+		admin.setId(1);
+		admin.setName("ADMIN");
+		roleAuthorities.apply(List.of(admin));
+
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		KeyPair keyPair = generator.generateKeyPair();
+		Base64.Encoder encoder = Base64.getEncoder();
+		SigningKeyRing signingKeyRing = new SigningKeyRing(new JwtKeyProperties(),
+				encoder.encodeToString(keyPair.getPrivate().getEncoded()),
+				encoder.encodeToString(keyPair.getPublic().getEncoded()));
+		jwtProvider = new JwtProvider(signingKeyRing, new VerifiedTokenCache(100), new IntrospectionCache(100, 5000),
+				new TokenRevocationStore(60000, 1000), mock(TokenRevocationService.class),
+				new AuthMetrics(new SimpleMeterRegistry()), roleAuthorities, mock(CustomUserDetailsService.class));
+		ReflectionTestUtils.setField(jwtProvider, "JWT_EXPIRATION_IN_MS", 900000L);
+		ReflectionTestUtils.setField(jwtProvider, "JWT_REFRESH_EXPIRATION_IN_MS", 3600000L);
+		service = new TokenIntrospectionService(jwtProvider, 1000);
+	}
+
+	@Test
+	void refreshTokensAreInactive() {
+		TokenPair pair = jwtProvider.generateTokenPair(
+				new UserPrincipal(7, "admin", "hash", roleAuthorities.authoritiesOfRole(1)));
+
+		IntrospectionResponse access = service.introspect(pair.getAccessToken());
+		assertThat(access.isActive()).isTrue();
+		assertThat(access.getScope()).isEqualTo("ROLE_ADMIN");
+
+		IntrospectionResponse refresh = service.introspect(pair.getRefreshToken());
+		assertThat(refresh.isActive()).isFalse();
+		assertThat(refresh.getScope()).isNull();
+		assertThat(refresh.getTokenType()).isNull();
+	}
+}
@@ -0,0 +1,88 @@
+package service;
+
+import model.entity.RevokedToken;
+import model.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import security.jwt.TokenRevocationStore;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TokenRevocationServiceTests {
+
+	@Configuration
+	@EntityScan(basePackageClasses = RevokedToken.class)
+	@EnableJpaRepositories(basePackageClasses = RevokedTokenRepository.class)
+	static class Config {
+	}
+
+	@Autowired
+	private RevokedTokenRepository revokedTokenRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void syncPullsRevocationsWrittenByAnotherNode() {
+		TokenRevocationService writer = new TokenRevocationService(revokedTokenRepository, new TokenRevocationStore(60000, 1000), 2, 60000);
+		TokenRevocationStore readerStore = new TokenRevocationStore(60000, 1000);
+		TokenRevocationService reader = new TokenRevocationService(revokedTokenRepository, readerStore, 2, 60000);
+
+		long expiresAt = System.currentTimeMillis() + 60000;
+		for (int i = 0; i < 5; i++) {
+			writer.revoke("digest-" + i, expiresAt);
+		}
+		assertThat(readerStore.isRevoked("digest-0")).isFalse();
+
+		reader.sync();
+		for (int i = 0; i < 5; i++) {
+			assertThat(readerStore.isRevoked("digest-" + i)).isTrue();
+		}
+
+		Instant lastSyncedAt = reader.getLastSyncedAt();
+		writer.revoke("digest-5", expiresAt);
+		reader.sync();
+		assertThat(readerStore.isRevoked("digest-5")).isTrue();
+		assertThat(reader.getLastSyncedAt()).isAfterOrEqualTo(lastSyncedAt);
+	}
+
+	@Test
+	void syncPicksUpRevocationCommittedAfterAHigherId() {
+		TokenRevocationStore readerStore = new TokenRevocationStore(60000, 1000);
+		TokenRevocationService reader = new TokenRevocationService(revokedTokenRepository, readerStore, 2, 60000);
+		Instant expiresAt = Instant.now().plusSeconds(60);
+
+		revokedTokenRepository.saveAndFlush(new RevokedToken("committed-first", expiresAt, Instant.now()));
+		reader.sync();
+		assertThat(readerStore.isRevoked("committed-first")).isTrue();
+
+		// took its id before the row above, but only commits now
+		jdbcTemplate.update("INSERT INTO revoked_tokens (id, token_digest, expires_at, revoked_at) VALUES (0, 'committed-late', ?, ?)",
+				Timestamp.from(expiresAt), Timestamp.from(Instant.now().minusSeconds(1)));
+		reader.sync();
+		assertThat(readerStore.isRevoked("committed-late")).isTrue();
+	}
+
+	@Test
+	void syncSkipsExpiredRevocations() {
+		revokedTokenRepository.save(new RevokedToken("expired", Instant.now().minusSeconds(60), Instant.now().minusSeconds(120)));
+		TokenRevocationStore readerStore = new TokenRevocationStore(60000, 1000);
+
+		new TokenRevocationService(revokedTokenRepository, readerStore, 2, 60000).sync();
+
+		assertThat(readerStore.isRevoked("expired")).isFalse();
+	}
+}
@@ -0,0 +1,143 @@
+package test.example.SpringSec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import model.entity.User;
+import model.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load run against the full application on H2, with the schema
+ * created by the Liquibase changelog. Seeds {@code load.users} accounts, then
+ * drives login, refresh and an authenticated endpoint from {@code load.clients}
+ * concurrent clients and fails when a scenario breaks its thresholds.
+ * Run with {@code ./gradlew loadTest [-Pload.clients=128 -Pload.login.maxP99Ms=300 ...]}.
+ */
+@Tag("load")
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AuthLoadTests {
+
+	private static final int USERS = Integer.getInteger("load.users", 500);
+	private static final int CLIENTS = Integer.getInteger("load.clients", 64);
+	private static final int REQUESTS = Integer.getInteger("load.requests", 5000);
+	private static final String PASSWORD = "load-test-password";
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void authenticationEndpointsMeetThresholds() throws Exception {
+		seedUsers();
+		LoadDriver driver = new LoadDriver(CLIENTS);
+		AtomicReferenceArray<String> accessTokens = new AtomicReferenceArray<>(USERS);
+		AtomicReferenceArray<String> refreshCookies = new AtomicReferenceArray<>(USERS);
+		List<LoadDriver.Report> reports = new ArrayList<>();
+
+		reports.add(driver.run("login", Math.max(REQUESTS, USERS), i -> login(i % USERS), (i, response) -> {
+			accessTokens.set(i % USERS, accessToken(response));
+			refreshCookies.set(i % USERS, refreshCookie(response));
+		}));
+		reports.add(driver.run("refresh", REQUESTS, i -> refresh(refreshCookies.get(i % USERS)), (i, response) -> {
+			// opaque refresh tokens rotate on every use
+			String rotated = refreshCookie(response);
+			if (rotated != null) {
+				refreshCookies.set(i % USERS, rotated);
+			}
+			accessTokens.set(i % USERS, accessToken(response));
+		}));
+		reports.add(driver.run("protected", REQUESTS, i -> currentUser(accessTokens.get(i % USERS))));
+
+		System.out.println(LoadDriver.Report.header());
+		reports.forEach(System.out::println);
+
+		List<String> violations = new ArrayList<>();
+		for (LoadDriver.Report report : reports) {
+			double maxErrorRate = Double.parseDouble(System.getProperty("load.maxErrorRate", "0"));
+			double maxP99Ms = Double.parseDouble(System.getProperty("load." + report.scenario + ".maxP99Ms", "1000"));
+			double minThroughput = Double.parseDouble(System.getProperty("load." + report.scenario + ".minThroughput", "0"));
+			if (report.failures > report.requests * maxErrorRate) {
+				violations.add(report.scenario + ": " + report.failures + " failed requests");
+			}
+			if (report.p99Ms > maxP99Ms) {
+				violations.add(report.scenario + ": p99 " + report.p99Ms + " ms > " + maxP99Ms + " ms");
+			}
+			if (report.throughput < minThroughput) {
+				violations.add(report.scenario + ": " + Math.round(report.throughput) + " req/s < " + minThroughput + " req/s");
+			}
+		}
+		assertThat(violations).isEmpty();
+	}
+
+	private void seedUsers() {
+		String hash = passwordEncoder.encode(PASSWORD);
+		for (int i = 0; i < USERS; i++) {
+			User user = new User();
+			user.setUsername("load-user-" + i);
+			user.setPassword(hash);
+			userRepository.save(user);
+		}
+	}
+
+	private HttpRequest login(int user) {
+		return HttpRequest.newBuilder(uri("/api/auth/login"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(
+						"{\"username\":\"load-user-" + user + "\",\"password\":\"" + PASSWORD + "\"}"))
+				.build();
+	}
+
+	private HttpRequest refresh(String refreshCookie) {
+		return HttpRequest.newBuilder(uri("/api/auth/refresh"))
+				.header("Cookie", refreshCookie)
+				.POST(HttpRequest.BodyPublishers.noBody())
+				.build();
+	}
+
+	private HttpRequest currentUser(String accessToken) {
+		return HttpRequest.newBuilder(uri("/api/v1/users/me"))
+				.header("Authorization", "Bearer " + accessToken)
+				.GET()
+				.build();
+	}
+
+	private String accessToken(HttpResponse<String> response) {
+		try {
+			return objectMapper.readTree(response.body()).get("accessToken").asText();
+		} catch (Exception e) {
+			throw new IllegalStateException("Unexpected response: " + response.body(), e);
+		}
+	}
+
+	private static String refreshCookie(HttpResponse<String> response) {
+		return response.headers().firstValue("Set-Cookie")
+				.map(cookie -> cookie.split(";", 2)[0])
+				.orElse(null);
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://localhost:" + port + path);
+	}
+}
@@ -0,0 +1,95 @@
+package test.example.SpringSec;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Closed-loop HTTP load generator: a fixed number of client threads send
+ * requests back to back and record each latency in an HDR histogram.
+ */
+final class LoadDriver {
+
+	private final int clients;
+	private final HttpClient httpClient = HttpClient.newHttpClient();
+
+	LoadDriver(int clients) {
+		this.clients = clients;
+	}
+
+	Report run(String scenario, int requests, IntFunction<HttpRequest> requestFactory) throws InterruptedException {
+		return run(scenario, requests, requestFactory, (i, response) -> {
+		});
+	}
+
+	Report run(String scenario, int requests, IntFunction<HttpRequest> requestFactory,
+			   BiConsumer<Integer, HttpResponse<String>> onSuccess) throws InterruptedException {
+		Histogram latencies = new ConcurrentHistogram(3);
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger failures = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(clients);
+		long start = System.nanoTime();
+		for (int c = 0; c < clients; c++) {
+			executor.execute(() -> {
+				int i;
+				while ((i = next.getAndIncrement()) < requests) {
+					HttpRequest request = requestFactory.apply(i);
+					long sent = System.nanoTime();
+					try {
+						HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+						latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sent));
+						if (response.statusCode() == 200) {
+							onSuccess.accept(i, response);
+						} else {
+							failures.incrementAndGet();
+						}
+					} catch (Exception e) {
+						failures.incrementAndGet();
+					}
+				}
+			});
+		}
+		executor.shutdown();
+		executor.awaitTermination(30, TimeUnit.MINUTES);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		return new Report(scenario, requests, failures.get(), requests / seconds, latencies);
+	}
+
+	static final class Report {
+		final String scenario;
+		final int requests;
+		final int failures;
+		final double throughput;
+		final double p50Ms;
+		final double p99Ms;
+		final double p999Ms;
+
+		private Report(String scenario, int requests, int failures, double throughput, Histogram latencies) {
+			this.scenario = scenario;
+			this.requests = requests;
+			this.failures = failures;
+			this.throughput = throughput;
+			this.p50Ms = latencies.getValueAtPercentile(50) / 1000.0;
+			this.p99Ms = latencies.getValueAtPercentile(99) / 1000.0;
+			this.p999Ms = latencies.getValueAtPercentile(99.9) / 1000.0;
+		}
+
+		static String header() {
+			return String.format("%-12s %9s %9s %10s %9s %9s %9s", "scenario", "requests", "failures", "req/s", "p50 ms", "p99 ms", "p999 ms");
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%-12s %9d %9d %10.0f %9.1f %9.1f %9.1f", scenario, requests, failures, throughput, p50Ms, p99Ms, p999Ms);
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package test.example.SpringSec;
+
+import model.entity.User;
+import model.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The reactive runtime on H2 over R2DBC: a user created through JPA logs in
+ * through the WebFlux stack and the issued token opens a protected endpoint.
+ * The test profile comes last so its H2 R2DBC URL wins over the reactive one.
+ */
+@ActiveProfiles({"reactive", "test"})
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReactiveAuthTests {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Test
+	void loginIssuesTokenAcceptedByWebFilter() {
+		User user = new User();
+		user.setUsername("reactive-user");
+		user.setPassword(passwordEncoder.encode("secret"));
+		userRepository.save(user);
+
+		Map<?, ?> login = webTestClient.post().uri("/api/auth/login")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(Map.of("username", "reactive-user", "password", "secret"))
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().exists(HttpHeaders.SET_COOKIE)
+				.expectBody(Map.class)
+				.returnResult().getResponseBody();
+		assertThat(login).isNotNull();
+
+		webTestClient.get().uri("/api/v1/users/me")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + login.get("accessToken"))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.username").isEqualTo("reactive-user");
+	}
+
+	@Test
+	void rejectsWrongPasswordAndMissingToken() {
+		webTestClient.post().uri("/api/auth/login")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(Map.of("username", "nobody", "password", "wrong"))
+				.exchange()
+				.expectStatus().isUnauthorized();
+
+		webTestClient.get().uri("/api/v1/users/me")
+				.exchange()
+				.expectStatus().isUnauthorized();
+	}
+}
@@ -0,0 +1,88 @@
+package test.example.SpringSec;
+
+import liquibase.integration.spring.SpringLiquibase;
+import model.entity.User;
+import model.repository.UserRepository;
+import model.routing.ReplicaLagMonitor;
+import model.routing.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two in-memory H2 databases stand in for primary and replica. Nothing replicates
+ * between them, so a row only the replica has shows where a lookup was served,
+ * and copying the heartbeat by hand plays the replication of it.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"spring.datasource.url=" + ReplicaRoutingTests.PRIMARY_URL,
+		"authentication.replicas.enabled=true",
+		"authentication.replicas.max-lag-ms=2000",
+		"authentication.replicas.lag-check-interval-ms=3600000",
+		"authentication.replicas.nodes[0].url=" + ReplicaRoutingTests.REPLICA_URL})
+class ReplicaRoutingTests {
+
+	static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+	static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+	private static final String HEARTBEAT = "SELECT beat_at FROM replica_heartbeat WHERE id = 1";
+
+	@Autowired
+	private ReplicaRoutingDataSource routingDataSource;
+
+	@Autowired
+	private ReplicaLagMonitor lagMonitor;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@BeforeAll
+	static void migrateReplica() throws Exception {
+		SpringLiquibase liquibase = new SpringLiquibase();
+		liquibase.setDataSource(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+		liquibase.setChangeLog("classpath:db/changelog/master.xml");
+		liquibase.setResourceLoader(new DefaultResourceLoader());
+		liquibase.afterPropertiesSet();
+	}
+
+	@Test
+	void readsGoToCaughtUpReplicaWritesAndFreshUsersToPrimary() {
+		JdbcTemplate primary = new JdbcTemplate(routingDataSource.getPrimary());
+		JdbcTemplate replica = new JdbcTemplate(routingDataSource.getReplicas().get(0));
+		replica.update("INSERT INTO users (id, username, password) VALUES (9001, 'replica-only', 'x')");
+
+		User user = new User();
+		user.setUsername("primary-only");
+		user.setPassword("x");
+		userRepository.save(user);
+		assertThat(primary.queryForObject("SELECT count(*) FROM users WHERE username = 'primary-only'", Integer.class)).isEqualTo(1);
+		assertThat(replica.queryForObject("SELECT count(*) FROM users WHERE username = 'primary-only'", Integer.class)).isZero();
+
+		// no heartbeat has reached the replica yet
+		lagMonitor.check();
+		assertThat(routingDataSource.getHealthyCount()).isZero();
+		assertThat(userService.findAuthViewByUsername("replica-only")).isNull();
+
+		replica.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1", primary.queryForObject(HEARTBEAT, Long.class));
+		lagMonitor.check();
+		assertThat(routingDataSource.getHealthyCount()).isEqualTo(1);
+		assertThat(userService.findAuthViewByUsername("replica-only")).isNotNull();
+		assertThat(userService.findAuthViewByUsername("primary-only")).isNotNull();
+
+		replica.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1", System.currentTimeMillis() - 10000);
+		lagMonitor.check();
+		assertThat(routingDataSource.getHealthyCount()).isZero();
+		assertThat(userService.findAuthViewByUsername("replica-only")).isNull();
+	}
+}
@@ -0,0 +1,144 @@
+package test.example.SpringSec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the application repeatedly as a separate process and measures the time
+ * from process start to the first successful authenticated request (a login
+ * followed by {@code GET /api/v1/users/me}). Each variant is a command line given
+ * as system property {@code startup.variant.<name>}; variants take turns so drift
+ * on the machine hits all of them alike, and the first round is not counted.
+ * Run with {@code ./gradlew startupBenchmark -Paot}, see build.gradle.
+ */
+public final class StartupBenchmark {
+
+	private static final String VARIANT_PREFIX = "startup.variant.";
+	private static final long TIMEOUT_MS = 120000;
+
+	private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final String username;
+	private final String password;
+	private final List<String> appArgs;
+
+	private StartupBenchmark(String username, String password, List<String> appArgs) {
+		this.username = username;
+		this.password = password;
+		this.appArgs = appArgs;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, List<String>> variants = new LinkedHashMap<>();
+		System.getProperties().stringPropertyNames().stream()
+				.filter(name -> name.startsWith(VARIANT_PREFIX))
+				.sorted()
+				.forEach(name -> variants.put(name.substring(VARIANT_PREFIX.length()), split(System.getProperty(name))));
+		if (variants.isEmpty()) {
+			throw new IllegalArgumentException("No -D" + VARIANT_PREFIX + "<name>=<command line> given");
+		}
+		int runs = Integer.getInteger("startup.runs", 10);
+		StartupBenchmark benchmark = new StartupBenchmark(
+				System.getProperty("startup.username", "startup-benchmark"),
+				System.getProperty("startup.password", "startup-benchmark"),
+				split(System.getProperty("startup.args", "")));
+
+		Map<String, List<Long>> results = new LinkedHashMap<>();
+		variants.keySet().forEach(name -> results.put(name, new ArrayList<>()));
+		for (int run = 0; run <= runs; run++) {
+			for (Map.Entry<String, List<String>> variant : variants.entrySet()) {
+				long millis = benchmark.timeToFirstAuthenticatedRequest(variant.getKey(), variant.getValue());
+				if (run > 0) {
+					results.get(variant.getKey()).add(millis);
+				}
+			}
+		}
+
+		System.out.println(String.format("%-20s %6s %10s %10s %10s", "variant", "runs", "min ms", "median ms", "max ms"));
+		results.forEach((name, millis) -> {
+			long[] sorted = millis.stream().mapToLong(Long::longValue).sorted().toArray();
+			System.out.println(String.format("%-20s %6d %10d %10d %10d",
+					name, sorted.length, sorted[0], sorted[sorted.length / 2], sorted[sorted.length - 1]));
+		});
+	}
+
+	private long timeToFirstAuthenticatedRequest(String name, List<String> command) throws Exception {
+		int port = freePort();
+		List<String> commandLine = new ArrayList<>(command);
+		commandLine.addAll(appArgs);
+		commandLine.add("--server.port=" + port);
+		File log = File.createTempFile("startup-" + name + "-", ".log");
+		String base = "http://localhost:" + port;
+
+		long start = System.nanoTime();
+		Process process = new ProcessBuilder(commandLine).redirectErrorStream(true).redirectOutput(log).start();
+		try {
+			String accessToken = login(base, process, start, log);
+			HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(base + "/api/v1/users/me"))
+					.header("Authorization", "Bearer " + accessToken)
+					.GET()
+					.build(), HttpResponse.BodyHandlers.ofString());
+			long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			if (response.statusCode() != 200) {
+				throw new IllegalStateException(name + ": /api/v1/users/me returned " + response.statusCode() + ", see " + log);
+			}
+			log.delete();
+			return millis;
+		} finally {
+			process.destroy();
+			if (!process.waitFor(30, TimeUnit.SECONDS)) {
+				process.destroyForcibly().waitFor();
+			}
+		}
+	}
+
+	// polls the login endpoint until the app accepts connections
+	private String login(String base, Process process, long start, File log) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(
+						Map.of("username", username, "password", password))))
+				.build();
+		while (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < TIMEOUT_MS) {
+			if (!process.isAlive()) {
+				throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+			}
+			try {
+				HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+				if (response.statusCode() != 200) {
+					throw new IllegalStateException("Login as " + username + " returned " + response.statusCode()
+							+ "; the user has to exist in the database the application starts against");
+				}
+				return objectMapper.readTree(response.body()).get("accessToken").asText();
+			} catch (IOException e) {
+				// not listening yet
+				Thread.sleep(10);
+			}
+		}
+		throw new IllegalStateException("No successful login within " + TIMEOUT_MS + " ms, see " + log);
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+	private static List<String> split(String commandLine) {
+		return commandLine.isBlank() ? List.of() : Arrays.asList(commandLine.trim().split("\\s+"));
+	}
+}
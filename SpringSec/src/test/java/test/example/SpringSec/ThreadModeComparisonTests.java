@@ -0,0 +1,91 @@
+package test.example.SpringSec;
+
+import model.entity.User;
+import model.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpRequest;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Drives concurrent logins (a JDBC lookup plus a BCrypt check each) against the
+ * app in platform-thread and virtual-thread mode and prints peak platform
+ * thread count, throughput and latency percentiles for both.
+ * Run with {@code ./gradlew perfTest -PjavaVersion=21}.
+ */
+@Tag("perf")
+class ThreadModeComparisonTests {
+
+	private static final int USERS = 200;
+	private static final int CONCURRENCY = 400;
+	private static final int REQUESTS = 4000;
+	private static final String PASSWORD = "secret";
+
+	@Test
+	void compareVirtualAndPlatformThreads() throws Exception {
+		assumeTrue(Runtime.version().feature() >= 21, "virtual threads need Java 21, run with -PjavaVersion=21");
+
+		Result platform = run(false);
+		Result virtual = run(true);
+
+		System.out.println(LoadDriver.Report.header() + "  peak threads");
+		for (Result result : new Result[]{platform, virtual}) {
+			System.out.println(result.report + String.format("  %12d", result.peakThreads));
+		}
+	}
+
+	private Result run(boolean virtualThreads) throws Exception {
+		String mode = virtualThreads ? "virtual" : "platform";
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringSecApplication.class)
+				.profiles("test")
+				.properties("server.port=0",
+						"spring.threads.virtual.enabled=" + virtualThreads,
+						"spring.datasource.url=jdbc:h2:mem:" + mode + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+						"authentication.password.bcrypt.strength=4",
+						"authentication.password.hashing.queue-capacity=" + REQUESTS,
+						"authentication.user-cache.max-size=0")
+				.run()) {
+			seedUsers(context);
+			String url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/auth/login";
+			ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+			threads.resetPeakThreadCount();
+			LoadDriver.Report report = new LoadDriver(CONCURRENCY).run(mode, REQUESTS, i -> HttpRequest.newBuilder(URI.create(url))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(
+							"{\"username\":\"perf-user-" + (i % USERS) + "\",\"password\":\"" + PASSWORD + "\"}"))
+					.build());
+			// the driver's CONCURRENCY client threads are included in both modes
+			return new Result(report, threads.getPeakThreadCount());
+		}
+	}
+
+	private void seedUsers(ConfigurableApplicationContext context) {
+		UserRepository userRepository = context.getBean(UserRepository.class);
+		String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+		for (int i = 0; i < USERS; i++) {
+			User user = new User();
+			user.setUsername("perf-user-" + i);
+			user.setPassword(hash);
+			userRepository.save(user);
+		}
+	}
+
+	private static final class Result {
+		private final LoadDriver.Report report;
+		private final int peakThreads;
+
+		private Result(LoadDriver.Report report, int peakThreads) {
+			this.report = report;
+			this.peakThreads = peakThreads;
+		}
+	}
+}